@@ -15,7 +15,7 @@ public class DynamicTableInitializer implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         logger.info("Dynamic floor plan system initialized. No sample data will be created.");
-        logger.info("Tables will be created dynamically when floor plan data is first saved.");
+        logger.info("Floor plans are stored in dynamic_floor_plan_table; legacy per-floor tables are migrated on startup.");
     }
     
 
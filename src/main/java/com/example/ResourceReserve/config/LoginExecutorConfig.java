@@ -0,0 +1,39 @@
+package com.example.ResourceReserve.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated executor for logins. Password hashing is deliberately expensive,
+ * so logins run on a small fixed pool with a bounded queue instead of on
+ * request threads: a login storm queues up here (and is rejected once the
+ * queue is full) while booking traffic keeps its threads and CPU.
+ */
+@Configuration
+@Slf4j
+public class LoginExecutorConfig {
+
+    @Value("${security.login.threads:0}")
+    private int threads;
+
+    @Value("${security.login.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor() {
+        // 0 means one thread per available CPU
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setThreadPriority(Thread.NORM_PRIORITY - 1);
+        executor.initialize();
+        log.info("Login executor: {} threads, queue capacity {}", poolSize, queueCapacity);
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.ResourceReserve.config;
+
+import com.example.ResourceReserve.security.InMemoryRateLimitStore;
+import com.example.ResourceReserve.security.RateLimitStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class RateLimitConfig {
+
+    /**
+     * In-memory buckets unless a shared {@link RateLimitStore} bean is defined.
+     */
+    @Bean
+    @ConditionalOnMissingBean(RateLimitStore.class)
+    public RateLimitStore rateLimitStore(@Value("${rate.limit.max-keys:100000}") long maxKeys,
+                                         @Value("${rate.limit.login.window}") long loginWindow,
+                                         @Value("${rate.limit.password.reset.window}") long passwordResetWindow,
+                                         @Value("${rate.limit.api.window}") long apiWindow) {
+        long maxWindow = Math.max(loginWindow, Math.max(passwordResetWindow, apiWindow));
+        return new InMemoryRateLimitStore(maxKeys, Duration.ofSeconds(maxWindow));
+    }
+}
@@ -1,20 +1,28 @@
 package com.example.ResourceReserve.controller;
 
 import com.example.ResourceReserve.dto.*;
+import com.example.ResourceReserve.security.LoginAttemptLimiter;
+import com.example.ResourceReserve.security.TokenClaims;
 import com.example.ResourceReserve.service.AuthService;
 import com.example.ResourceReserve.service.JwtService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -25,20 +33,56 @@ public class AuthController {
     
     private final AuthService authService;
     private final JwtService jwtService;
+    // Resolved by name: the "loginExecutor" bean from LoginExecutorConfig
+    private final Executor loginExecutor;
+    private final LoginAttemptLimiter loginAttemptLimiter;
     
+    /**
+     * Logins run on the bounded login executor; the request thread is released
+     * while the password is checked. When the queue is full the login is
+     * rejected with 503 and Retry-After instead of piling up. Too many failed
+     * attempts for the same email from the same client get 429.
+     */
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                                  HttpServletRequest httpRequest) {
+        // Read on the request thread; the request object must not be used from the login executor
+        String clientAddress = httpRequest.getRemoteAddr();
+        long retryAfterMillis = loginAttemptLimiter.retryAfterMillis(clientAddress, request.getEmail());
+        if (retryAfterMillis > 0) {
+            log.warn("Login rate limit exceeded for {}", request.getEmail());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString((retryAfterMillis + 999) / 1000))
+                    .body(LoginResponse.builder()
+                            .success(false)
+                            .error("Too many login attempts")
+                            .message("Too many failed login attempts, please try again later")
+                            .build()));
+        }
         try {
-            LoginResponse response = authService.login(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Login failed: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+            return CompletableFuture
+                    .supplyAsync(() -> ResponseEntity.ok(authService.login(request)), loginExecutor)
+                    .exceptionally(e -> {
+                        log.error("Login failed: {}", e.getMessage());
+                        if (e.getCause() instanceof AuthenticationException) {
+                            loginAttemptLimiter.recordFailure(clientAddress, request.getEmail());
+                        }
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(LoginResponse.builder()
+                                        .success(false)
+                                        .error("Invalid credentials")
+                                        .message("Email or password is incorrect")
+                                        .build());
+                    });
+        } catch (RejectedExecutionException e) {
+            log.warn("Login rejected, login queue is full");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
                     .body(LoginResponse.builder()
                             .success(false)
-                            .error("Invalid credentials")
-                            .message("Email or password is incorrect")
-                            .build());
+                            .error("Too many login attempts")
+                            .message("The server is busy, please try again shortly")
+                            .build()));
         }
     }
     
@@ -73,16 +117,13 @@ public class AuthController {
     public ResponseEntity<Map<String, Object>> verifyToken(HttpServletRequest request) {
         try {
             String token = extractTokenFromRequest(request);
-            if (jwtService.validateToken(token, jwtService.getJwtSecret())) {
-                String email = jwtService.extractEmail(token, jwtService.getJwtSecret());
-                String role = jwtService.extractRole(token, jwtService.getJwtSecret());
-                var permissions = jwtService.extractPermissions(token, jwtService.getJwtSecret());
-                
+            TokenClaims claims = jwtService.parseAccessToken(token);
+            if (claims != null) {
                 Map<String, Object> userInfo = new HashMap<>();
-                userInfo.put("id", jwtService.extractUserId(token, jwtService.getJwtSecret()));
-                userInfo.put("email", email);
-                userInfo.put("role", role);
-                userInfo.put("permissions", permissions);
+                userInfo.put("id", claims.userId());
+                userInfo.put("email", claims.email());
+                userInfo.put("role", claims.role());
+                userInfo.put("permissions", claims.permissions());
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("valid", true);
@@ -196,6 +237,19 @@ public class AuthController {
         }
     }
     
+    @GetMapping("/token-cache/stats")
+    @PreAuthorize("hasAuthority('admin:all')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTokenCacheStats() {
+        CacheStats stats = jwtService.getVerifiedTokenCacheStats();
+        Map<String, Object> data = new HashMap<>();
+        data.put("size", jwtService.getVerifiedTokenCacheSize());
+        data.put("hitCount", stats.hitCount());
+        data.put("missCount", stats.missCount());
+        data.put("hitRate", stats.hitRate());
+        data.put("evictionCount", stats.evictionCount());
+        return ResponseEntity.ok(ApiResponse.success(data, "Verified token cache statistics"));
+    }
+    
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
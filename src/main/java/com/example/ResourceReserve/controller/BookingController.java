@@ -3,21 +3,27 @@ package com.example.ResourceReserve.controller;
 import com.example.ResourceReserve.dto.ApiResponse;
 import com.example.ResourceReserve.dto.BookingRequest;
 import com.example.ResourceReserve.dto.BookingResponse;
+import com.example.ResourceReserve.dto.BulkBookingRequest;
 import com.example.ResourceReserve.entity.Booking;
 import com.example.ResourceReserve.entity.Booking.BookType;
 import com.example.ResourceReserve.entity.Booking.RecurrenceType;
+import com.example.ResourceReserve.entity.BookingSeries;
 import com.example.ResourceReserve.repository.BookingRepository;
+import com.example.ResourceReserve.security.TokenClaims;
+import com.example.ResourceReserve.service.BookingDashboardService;
 import com.example.ResourceReserve.service.BookingService;
-import com.example.ResourceReserve.service.JwtService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 @RestController
@@ -29,7 +35,7 @@ public class BookingController {
 
     private final BookingRepository bookingRepo;
     private final BookingService bookingService;
-    private final JwtService jwtService;
+    private final BookingDashboardService bookingDashboardService;
     
     @GetMapping("/health")
     public ResponseEntity<ApiResponse> healthCheck() {
@@ -60,23 +66,22 @@ public class BookingController {
     @PostMapping("/seat")
     public ResponseEntity<ApiResponse> createBooking(
             @RequestBody BookingRequest request,
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestAttribute(value = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims tokenClaims) {
         
         log.info("Received booking request: {}", request);
         log.info("Auth header: {}", authHeader);
         
         try {
             // Extract user ID from JWT token or use from request
-            String userId = extractUserId(authHeader, request);
+            String userId = extractUserId(tokenClaims, request);
             log.info("Extracted userId: {}", userId);
             
             log.info("Calling bookingService.createBooking...");
             List<Booking> savedBookings = bookingService.createBooking(request, userId);
             log.info("Booking created successfully, count: {}", savedBookings.size());
             
-            List<BookingResponse> bookingResponses = savedBookings.stream()
-                    .map(BookingResponse::fromEntity)
-                    .toList();
+            List<BookingResponse> bookingResponses = bookingService.toResponses(savedBookings);
             
             List<String> bookingDates = savedBookings.stream()
                     .map(booking -> booking.getDate().toString())
@@ -118,26 +123,81 @@ public class BookingController {
         }
     }
 
+    /**
+     * Book many seats and date ranges in one call, all or nothing. The
+     * response lists a result per item; nothing is booked unless every item
+     * could be.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse> createBookings(
+            @RequestBody BulkBookingRequest request,
+            @RequestAttribute(value = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims tokenClaims) {
+        
+        try {
+            String userId = tokenClaims != null && tokenClaims.userId() != null ? tokenClaims.userId()
+                    : request.getUserId() != null ? request.getUserId() : "anonymous";
+            BookingService.BulkBookingResult result = bookingService.createBookings(request.getItems(), userId);
+            
+            if (result.committed()) {
+                int totalBookings = result.items().stream().mapToInt(item -> item.bookings().size()).sum();
+                return ResponseEntity.ok(ApiResponse.builder()
+                        .success(true)
+                        .message("Bulk booking successful")
+                        .data(Map.of("items", result.items(), "totalBookings", totalBookings))
+                        .build());
+            }
+            // Invalid items are the client's to fix; otherwise some seat was already taken
+            boolean invalid = result.items().stream().anyMatch(item -> "invalid".equals(item.status()));
+            return ResponseEntity.status(invalid ? HttpStatus.BAD_REQUEST : HttpStatus.CONFLICT).body(ApiResponse.builder()
+                    .success(false)
+                    .message(invalid ? "Some items are invalid, nothing was booked" : "Some items are already booked, nothing was booked")
+                    .data(Map.of("items", result.items()))
+                    .build());
+                    
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid bulk booking request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build());
+        } catch (IllegalStateException e) {
+            log.warn("Bulk booking conflict: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build());
+        } catch (Exception e) {
+            log.error("Error creating bulk booking", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Error creating bookings: " + e.getMessage())
+                    .build());
+        }
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse> getBookings(
             @RequestParam(required = false) String userId,
             @RequestParam(required = false) String seatId,
             @RequestParam(required = false) String date,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         
         try {
-            List<Booking> bookings = bookingService.getBookings(userId, seatId, date, status);
-            
-            List<BookingResponse> bookingResponses = bookings.stream()
-                    .map(BookingResponse::fromEntity)
-                    .toList();
+            BookingService.BookingPage page = bookingService.getBookings(userId, seatId, date, status, cursor, limit);
             
             return ResponseEntity.ok(ApiResponse.builder()
                     .success(true)
                     .message("Bookings retrieved successfully")
-                    .data(Map.of("bookings", bookingResponses, "count", bookings.size()))
+                    .data(pageData(page))
                     .build());
                     
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build());
         } catch (Exception e) {
             log.error("Error retrieving bookings", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.builder()
@@ -147,20 +207,84 @@ public class BookingController {
         }
     }
 
+    /**
+     * All bookings matching the filters in one response, written while they
+     * are read instead of being collected first. For exports; interactive
+     * clients should page through {@code GET /bookings}.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamBookings(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String seatId,
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String status) {
+        
+        StreamingResponseBody body;
+        try {
+            body = bookingService.streamBookings(userId, seatId, date, status);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * A user's bookings that have been moved to the archive. Live bookings are
+     * listed by {@code GET /bookings}.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<ApiResponse> getArchivedBookings(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestAttribute(value = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims tokenClaims) {
+        
+        try {
+            String targetUserId = tokenClaims != null && tokenClaims.userId() != null ? tokenClaims.userId() : userId;
+            if (targetUserId == null) {
+                return ResponseEntity.badRequest().body(ApiResponse.builder()
+                        .success(false)
+                        .message("userId is required")
+                        .build());
+            }
+            BookingService.BookingPage page = bookingService.getArchivedBookings(targetUserId, cursor, limit);
+            
+            return ResponseEntity.ok(ApiResponse.builder()
+                    .success(true)
+                    .message("Archived bookings retrieved successfully")
+                    .data(pageData(page))
+                    .build());
+                    
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build());
+        } catch (Exception e) {
+            log.error("Error retrieving archived bookings", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Error retrieving archived bookings: " + e.getMessage())
+                    .build());
+        }
+    }
+
     @DeleteMapping("/{bookingId}")
     public ResponseEntity<ApiResponse> cancelBooking(
             @PathVariable String bookingId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestAttribute(value = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims tokenClaims) {
         
         try {
-            String userId = extractUserId(authHeader, null);
+            String userId = extractUserId(tokenClaims, null);
             
             Booking cancelledBooking = bookingService.cancelBooking(bookingId, userId);
             
             return ResponseEntity.ok(ApiResponse.builder()
                     .success(true)
                     .message("Booking cancelled successfully")
-                    .data(Map.of("bookingId", bookingId, "booking", BookingResponse.fromEntity(cancelledBooking)))
+                    .data(Map.of("bookingId", bookingId, "booking", bookingService.toResponse(cancelledBooking)))
                     .build());
                     
         } catch (IllegalArgumentException e) {
@@ -193,7 +317,7 @@ public class BookingController {
             return ResponseEntity.ok(ApiResponse.builder()
                     .success(true)
                     .message("Booking retrieved successfully")
-                    .data(Map.of("booking", BookingResponse.fromEntity(booking.get())))
+                    .data(Map.of("booking", bookingService.toResponse(booking.get())))
                     .build());
                     
         } catch (Exception e) {
@@ -205,27 +329,90 @@ public class BookingController {
         }
     }
     
+    /**
+     * A recurrence series with its occurrences in [from, to] (today and the
+     * following 30 days by default), expanded from the stored rule.
+     */
+    @GetMapping("/series/{seriesId}")
+    public ResponseEntity<ApiResponse> getSeries(
+            @PathVariable Long seriesId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+            LocalDate toDate = to != null ? LocalDate.parse(to) : fromDate.plusDays(30);
+            BookingService.SeriesWindow window = bookingService.getSeriesOccurrences(seriesId, fromDate, toDate);
+            BookingSeries series = window.series();
+            
+            Map<String, Object> data = new HashMap<>();
+            data.put("seriesId", series.getId());
+            data.put("recurrenceType", series.getRecurrenceType());
+            data.put("startDate", series.getStartDate().toString());
+            data.put("endDate", series.getEndDate() != null ? series.getEndDate().toString() : null);
+            data.put("customDates", series.getCustomDates().stream().sorted().map(LocalDate::toString).toList());
+            data.put("startTime", series.getStartTime().toString());
+            data.put("endTime", series.getEndTime().toString());
+            data.put("bookType", series.getBookType());
+            data.put("subType", series.getSubType());
+            data.put("userId", series.getUserId());
+            data.put("from", fromDate.toString());
+            data.put("to", toDate.toString());
+            data.put("occurrences", window.occurrences().stream()
+                    .map(occurrence -> {
+                        Map<String, Object> item = new HashMap<>();
+                        item.put("date", occurrence.date().toString());
+                        item.put("bookingId", occurrence.bookingId());
+                        item.put("status", occurrence.status());
+                        return item;
+                    })
+                    .toList());
+            
+            return ResponseEntity.ok(ApiResponse.builder()
+                    .success(true)
+                    .message("Series retrieved successfully")
+                    .data(data)
+                    .build());
+                    
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build());
+        } catch (Exception e) {
+            log.error("Error retrieving booking series", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.builder()
+                    .success(false)
+                    .message("Error retrieving series: " + e.getMessage())
+                    .build());
+        }
+    }
+    
     @GetMapping("/location")
     public ResponseEntity<ApiResponse> getBookingsByLocation(
             @RequestParam String officeLocation,
             @RequestParam String building,
             @RequestParam String floor,
-            @RequestParam String date) {
+            @RequestParam String date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         
         try {
             LocalDate bookingDate = LocalDate.parse(date);
-            List<Booking> bookings = bookingService.getBookingsByLocation(officeLocation, building, floor, bookingDate);
-            
-            List<BookingResponse> bookingResponses = bookings.stream()
-                    .map(BookingResponse::fromEntity)
-                    .toList();
+            BookingService.BookingPage page = bookingService.getBookingsByLocation(
+                    officeLocation, building, floor, bookingDate, cursor, limit);
             
             return ResponseEntity.ok(ApiResponse.builder()
                     .success(true)
                     .message("Bookings retrieved successfully")
-                    .data(Map.of("bookings", bookingResponses, "count", bookings.size()))
+                    .data(pageData(page))
                     .build());
                     
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build());
         } catch (Exception e) {
             log.error("Error retrieving bookings by location", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.builder()
@@ -273,69 +460,38 @@ public class BookingController {
     @GetMapping("/user/{userId}/dashboard")
     public ResponseEntity<ApiResponse> getUserBookingsForDashboard(
             @PathVariable String userId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestAttribute(value = TokenClaims.REQUEST_ATTRIBUTE, required = false) TokenClaims tokenClaims) {
         
         try {
-            // Verify user from token if provided
-            String tokenUserId = null;
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                try {
-                    String token = authHeader.substring(7);
-                    tokenUserId = jwtService.extractUserId(token, jwtService.getJwtSecret());
-                } catch (Exception e) {
-                    log.warn("Failed to extract user from token", e);
-                }
-            }
+            // Verify user from token if provided (already verified by the JWT filter)
+            String tokenUserId = tokenClaims != null ? tokenClaims.userId() : null;
             
             // Use token userId if available, otherwise use path userId
             String targetUserId = tokenUserId != null ? tokenUserId : userId;
             
-            LocalDate today = LocalDate.now();
-            LocalDate tomorrow = today.plusDays(1);
-            
-            // Get today's bookings
-            List<Booking> todayBookings = bookingService.getBookingsByDateRange( today, today);
-            System.out.println(today+ "todayBookings "+todayBookings);
-            // Get upcoming bookings (tomorrow onwards)
-            List<Booking> upcomingBookings = bookingService.getBookingsByDateRange( tomorrow, today.plusMonths(1));
-            
-            // Get historical bookings (past bookings)
-            List<Booking> historicalBookings = bookingService.getBookingsByDateRange( today.minusMonths(1), today.minusDays(1));
-            
-            // Convert to responses
-            List<BookingResponse> todayResponses = todayBookings.stream()
-                    .map(BookingResponse::fromEntity)
-                    .toList();
-            
-            List<BookingResponse> upcomingResponses = upcomingBookings.stream()
-                    .map(BookingResponse::fromEntity)
-                    .toList();
-            
-            List<BookingResponse> historicalResponses = historicalBookings.stream()
-                    .map(BookingResponse::fromEntity)
-                    .toList();
+            BookingDashboardService.Dashboard dashboard = bookingDashboardService.getDashboard(targetUserId);
             
             return ResponseEntity.ok(ApiResponse.builder()
                     .success(true)
                     .message("User bookings retrieved successfully")
                     .data(Map.of(
                             "today", Map.of(
-                                    "bookings", todayResponses,
-                                    "count", todayBookings.size()
+                                    "bookings", dashboard.today(),
+                                    "count", dashboard.today().size()
                             ),
                             "upcoming", Map.of(
-                                    "bookings", upcomingResponses,
-                                    "count", upcomingBookings.size()
+                                    "bookings", dashboard.upcoming(),
+                                    "count", dashboard.upcoming().size()
                             ),
                             "history", Map.of(
-                                    "bookings", historicalResponses,
-                                    "count", historicalBookings.size()
+                                    "bookings", dashboard.history(),
+                                    "count", dashboard.history().size()
                             ),
                             "summary", Map.of(
-                                    "totalBookings", todayBookings.size() + upcomingBookings.size() + historicalBookings.size(),
-                                    "todayCount", todayBookings.size(),
-                                    "upcomingCount", upcomingBookings.size(),
-                                    "historyCount", historicalBookings.size()
+                                    "totalBookings", dashboard.totalBookings(),
+                                    "todayCount", dashboard.today().size(),
+                                    "upcomingCount", dashboard.upcoming().size(),
+                                    "historyCount", dashboard.history().size()
                             )
                     ))
                     .build());
@@ -349,14 +505,18 @@ public class BookingController {
         }
     }
 
-    private String extractUserId(String authHeader, BookingRequest request) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            try {
-                String token = authHeader.substring(7);
-                return jwtService.extractUserId(token, jwtService.getJwtSecret());
-            } catch (Exception e) {
-                log.warn("Failed to extract user from token", e);
-            }
+    private Map<String, Object> pageData(BookingService.BookingPage page) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("bookings", page.bookings());
+        data.put("count", page.bookings().size());
+        data.put("nextCursor", page.nextCursor());
+        data.put("hasMore", page.nextCursor() != null);
+        return data;
+    }
+
+    private String extractUserId(TokenClaims tokenClaims, BookingRequest request) {
+        if (tokenClaims != null && tokenClaims.userId() != null) {
+            return tokenClaims.userId();
         }
         
         // Fallback to request userId or generate a default
@@ -2,21 +2,29 @@ package com.example.ResourceReserve.controller;
 
 import com.example.ResourceReserve.dto.ApiResponse;
 import com.example.ResourceReserve.dto.DynamicFloorPlanRequest;
-import com.example.ResourceReserve.entity.Booking;
 import com.example.ResourceReserve.repository.BookingRepository;
 import com.example.ResourceReserve.service.DynamicFloorPlanService;
+import com.example.ResourceReserve.service.SeatOccupancyService;
+import com.example.ResourceReserve.service.SeatStatusBroadcaster;
+import com.example.ResourceReserve.service.SeatStatusChangeLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/dynamic-floor-plans")
@@ -31,6 +39,18 @@ public class DynamicFloorPlanController {
     @Autowired
     private BookingRepository bookingRepository;
     
+    @Autowired
+    private SeatOccupancyService seatOccupancyService;
+    
+    @Autowired
+    private SeatStatusChangeLog seatStatusChangeLog;
+    
+    @Autowired
+    private SeatStatusBroadcaster seatStatusBroadcaster;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     /**
      * Save or update floor plan data
      */
@@ -70,57 +90,58 @@ public class DynamicFloorPlanController {
     }
     
     /**
-     * Get floor plan data by parameters
+     * Get floor plan data by parameters. The plan is streamed; error responses
+     * go through the same return type, as the streaming handler only takes a
+     * declared StreamingResponseBody.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse> getFloorPlan(
+    public ResponseEntity<StreamingResponseBody> getFloorPlan(
             @RequestParam String officeLocation,
             @RequestParam String buildingName,
             @RequestParam String floorId,
-            @RequestParam(required = false) String date) {
+            @RequestParam(required = false) String date,
+            WebRequest webRequest) {
         try {
             logger.info("Retrieving floor plan data for: officeLocation={}, buildingName={}, floorId={}, date={}", 
                        officeLocation, buildingName, floorId, date);
             
-            Optional<String> planData;
-            if (date != null && !date.isEmpty()) {
-                LocalDate bookingDate = LocalDate.parse(date);
-                planData = dynamicFloorPlanService.getFloorPlanData(officeLocation, buildingName, floorId, bookingDate);
-            } else {
-                planData = dynamicFloorPlanService.getFloorPlanData(officeLocation, buildingName, floorId);
+            LocalDate bookingDate = date != null && !date.isEmpty() ? LocalDate.parse(date) : LocalDate.now();
+            
+            // Answer If-None-Match with 304 while neither the plan nor its bookings changed
+            Optional<String> version = dynamicFloorPlanService.getFloorPlanVersion(officeLocation, buildingName, floorId, bookingDate);
+            if (version.isPresent() && webRequest.checkNotModified(version.get())) {
+                return null;
             }
             
+            Optional<StreamingResponseBody> planData = dynamicFloorPlanService.streamFloorPlanData(
+                    officeLocation, buildingName, floorId, bookingDate, version.orElse(""));
+            
             if (planData.isPresent()) {
-                return ResponseEntity.ok(ApiResponse.builder()
-                        .success(true)
-                        .message("Floor plan data retrieved successfully")
-                        .data(Map.of(
-                            "office_location", officeLocation,
-                            "building_name", buildingName,
-                            "floor_id", floorId,
-                            "date", date != null ? date : LocalDate.now().toString(),
-                            "plan_json", planData.get(),
-                            "table_name", dynamicFloorPlanService.generateTableName(officeLocation, buildingName, floorId)
-                        ))
-                        .build());
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(planData.get());
             } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(ApiResponse.builder()
-                                .success(false)
-                                .message("Floor plan data not found")
-                                .build());
+                return streamed(HttpStatus.NOT_FOUND, ApiResponse.builder()
+                        .success(false)
+                        .message("Floor plan data not found")
+                        .build());
             }
             
         } catch (Exception e) {
             logger.error("Error retrieving floor plan data: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.builder()
-                            .success(false)
-                            .message("Failed to retrieve floor plan data: " + e.getMessage())
-                            .build());
+            return streamed(HttpStatus.INTERNAL_SERVER_ERROR, ApiResponse.builder()
+                    .success(false)
+                    .message("Failed to retrieve floor plan data: " + e.getMessage())
+                    .build());
         }
     }
     
+    private ResponseEntity<StreamingResponseBody> streamed(HttpStatus status, ApiResponse response) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, response));
+    }
+    
     /**
      * Check if floor plan exists
      */
@@ -311,20 +332,25 @@ public class DynamicFloorPlanController {
             @RequestParam String officeLocation,
             @RequestParam String buildingName,
             @RequestParam String floorId,
-            @RequestParam(required = false) String date) {
+            @RequestParam(required = false) String date,
+            WebRequest webRequest) {
         try {
             LocalDate bookingDate = date != null ? LocalDate.parse(date) : LocalDate.now();
             
-            // Get bookings for this location and date
-            List<Booking> bookings = bookingRepository.findByOfficeLocationAndBuildingAndFloorAndDate(
+            // The booking overlay is versioned on its own so clients can re-fetch seat status only
+            SeatOccupancyService.FloorOccupancy occupancy =
+                seatOccupancyService.getOccupancy(officeLocation, buildingName, floorId, bookingDate);
+            String statusVersion = occupancy.version();
+            if (webRequest.checkNotModified(statusVersion)) {
+                return null;
+            }
+            
+            // Confirmed bookings come from the same overlay as the version; only the total is counted
+            List<String> bookedSeats = occupancy.bookedSeats();
+            long totalBookings = bookingRepository.countByOfficeLocationAndBuildingAndFloorAndDate(
                 officeLocation, buildingName, floorId, bookingDate
             );
             
-            List<String> bookedSeats = bookings.stream()
-                .filter(booking -> "confirmed".equals(booking.getStatus()))
-                .map(Booking::getSubType)
-                .toList();
-            
             return ResponseEntity.ok(ApiResponse.builder()
                     .success(true)
                     .message("Booking status retrieved successfully")
@@ -333,9 +359,10 @@ public class DynamicFloorPlanController {
                         "building_name", buildingName,
                         "floor_id", floorId,
                         "date", bookingDate.toString(),
-                        "total_bookings", bookings.size(),
+                        "total_bookings", totalBookings,
                         "confirmed_bookings", bookedSeats.size(),
-                        "booked_seats", bookedSeats
+                        "booked_seats", bookedSeats,
+                        "status_version", statusVersion
                     ))
                     .build());
                     
@@ -348,4 +375,90 @@ public class DynamicFloorPlanController {
                             .build());
         }
     }
+    
+    /**
+     * Get seats whose booking status changed since a cursor returned by a
+     * previous call. Without a cursor, or when the cursor is older than the
+     * retained changes, all booked seats are returned with resync=true.
+     */
+    @GetMapping("/booking-status/changes")
+    public ResponseEntity<ApiResponse> getBookingStatusChanges(
+            @RequestParam String officeLocation,
+            @RequestParam String buildingName,
+            @RequestParam String floorId,
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) Long since) {
+        try {
+            LocalDate bookingDate = date != null ? LocalDate.parse(date) : LocalDate.now();
+            
+            // Take the cursor before reading status so no later change can hide behind it
+            long cursor = seatStatusChangeLog.currentSequence();
+            Set<String> changedSeats = since != null
+                ? seatStatusChangeLog.changedSeatsSince(officeLocation, buildingName, floorId, bookingDate, since)
+                : null;
+            SeatOccupancyService.FloorOccupancy occupancy =
+                seatOccupancyService.getOccupancy(officeLocation, buildingName, floorId, bookingDate);
+            
+            if (changedSeats == null) {
+                return ResponseEntity.ok(ApiResponse.builder()
+                        .success(true)
+                        .message("Booking status resync required")
+                        .data(Map.of(
+                            "office_location", officeLocation,
+                            "building_name", buildingName,
+                            "floor_id", floorId,
+                            "date", bookingDate.toString(),
+                            "cursor", cursor,
+                            "resync", true,
+                            "booked_seats", List.copyOf(occupancy.occupiedSeats())
+                        ))
+                        .build());
+            }
+            
+            List<Map<String, String>> changes = changedSeats.stream()
+                .map(seatId -> Map.of(
+                    "seat_id", seatId,
+                    "status", occupancy.isOccupied(seatId) ? "occupied" : "available"))
+                .toList();
+            
+            return ResponseEntity.ok(ApiResponse.builder()
+                    .success(true)
+                    .message("Booking status changes retrieved successfully")
+                    .data(Map.of(
+                        "office_location", officeLocation,
+                        "building_name", buildingName,
+                        "floor_id", floorId,
+                        "date", bookingDate.toString(),
+                        "cursor", cursor,
+                        "resync", false,
+                        "changes", changes
+                    ))
+                    .build());
+                    
+        } catch (Exception e) {
+            logger.error("Error retrieving booking status changes: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.builder()
+                            .success(false)
+                            .message("Failed to retrieve booking status changes: " + e.getMessage())
+                            .build());
+        }
+    }
+    
+    /**
+     * Subscribe to live seat status for a floor and date (Server-Sent Events).
+     * Sends a "snapshot" event with the booked seats, then a "seat-status"
+     * event for every seat whose status changes.
+     */
+    @GetMapping(path = "/booking-status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingStatus(
+            @RequestParam String officeLocation,
+            @RequestParam String buildingName,
+            @RequestParam String floorId,
+            @RequestParam(required = false) String date) {
+        LocalDate bookingDate = date != null ? LocalDate.parse(date) : LocalDate.now();
+        logger.info("Seat status subscription for: officeLocation={}, buildingName={}, floorId={}, date={}", 
+                   officeLocation, buildingName, floorId, bookingDate);
+        return seatStatusBroadcaster.subscribe(officeLocation, buildingName, floorId, bookingDate);
+    }
 } 
\ No newline at end of file
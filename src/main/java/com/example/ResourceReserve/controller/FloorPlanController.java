@@ -1,14 +1,16 @@
 package com.example.ResourceReserve.controller;
 
-import com.example.ResourceReserve.dto.FloorPlanResponse;
 import com.example.ResourceReserve.dto.DynamicFloorPlanRequest;
 import com.example.ResourceReserve.dto.ApiResponse;
 import com.example.ResourceReserve.service.FloorPlanService;
 import com.example.ResourceReserve.service.DynamicFloorPlanService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 
@@ -23,22 +25,31 @@ public class FloorPlanController {
     private final DynamicFloorPlanService dynamicFloorPlanService;
     
     @GetMapping
-    public ResponseEntity<FloorPlanResponse> getFloorPlan(
+    public ResponseEntity<StreamingResponseBody> getFloorPlan(
             @RequestParam String building,
             @RequestParam String office,
             @RequestParam String floor,
-            @RequestParam(required = false) String date) {
+            @RequestParam(required = false) String date,
+            WebRequest webRequest) {
         
         log.info("Floor plan request - Building: {}, Office: {}, Floor: {}, Date: {}", building, office, floor, date);
         
+        // Answer If-None-Match with 304 while neither the plan nor its bookings changed
+        if (webRequest.checkNotModified(floorPlanService.getFloorPlanVersion(building, office, floor, date))) {
+            return null;
+        }
+        
+        StreamingResponseBody body;
         try {
-            FloorPlanResponse floorPlan = floorPlanService.getFloorPlan(building, office, floor, date);
-            return ResponseEntity.ok(floorPlan);
+            body = floorPlanService.streamFloorPlan(building, office, floor, date);
         } catch (Exception e) {
             log.error("Error getting floor plan for building: {}, office: {}, floor: {}, date: {}", building, office, floor, date, e);
             // Return default floor plan on error
-            return ResponseEntity.ok(floorPlanService.getFloorPlan("", "", "", null));
+            body = floorPlanService.streamFloorPlan("", "", "", null);
         }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
     
     @PostMapping("/save")
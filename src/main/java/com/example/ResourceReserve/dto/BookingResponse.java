@@ -1,6 +1,8 @@
 package com.example.ResourceReserve.dto;
 
+import com.example.ResourceReserve.entity.ArchivedBooking;
 import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.BookingSeries;
 import com.example.ResourceReserve.entity.Booking.BookType;
 import com.example.ResourceReserve.entity.Booking.RecurrenceType;
 import com.fasterxml.jackson.annotation.JsonFormat;
@@ -20,6 +22,12 @@ public class BookingResponse {
     @JsonProperty("id")
     private String id;
     
+    @JsonProperty("externalId")
+    private String externalId;
+    
+    @JsonProperty("seriesId")
+    private Long seriesId;
+    
     @JsonProperty("date")
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate date;
@@ -76,8 +84,53 @@ public class BookingResponse {
     private LocalDateTime updatedAt;
     
     public static BookingResponse fromEntity(Booking booking) {
+        return fromEntity(booking, booking.getCustomDates());
+    }
+    
+    /**
+     * Response for a booking whose custom dates were loaded separately, so the
+     * lazy collection on the entity is never touched.
+     */
+    public static BookingResponse fromEntity(Booking booking, List<LocalDate> customDates) {
+        return BookingResponse.builder()
+                .id(String.valueOf(booking.getId()))
+                .externalId(booking.getExternalId())
+                .seriesId(booking.getSeriesId())
+                .date(booking.getDate())
+                .startTime(booking.getStartTime())
+                .endTime(booking.getEndTime())
+                .bookType(booking.getBookType())
+                .subType(booking.getSubType())
+                .officeLocation(booking.getOfficeLocation())
+                .building(booking.getBuilding())
+                .floor(booking.getFloor())
+                .recurrenceType(booking.getRecurrenceType())
+                .endDate(booking.getEndDate())
+                .customDates(customDates)
+                .status(booking.getStatus() != null ? booking.getStatus().getValue() : null)
+                .userId(booking.getUserId())
+                .notes(booking.getNotes())
+                .createdAt(booking.getCreatedAt())
+                .updatedAt(booking.getUpdatedAt())
+                .build();
+    }
+    
+    /**
+     * Fill in the recurrence rule of an occurrence from its series; occurrence
+     * rows no longer carry it.
+     */
+    public BookingResponse withSeries(BookingSeries series) {
+        this.recurrenceType = series.getRecurrenceType();
+        this.endDate = series.getEndDate();
+        this.customDates = series.getCustomDates();
+        return this;
+    }
+    
+    public static BookingResponse fromArchived(ArchivedBooking booking) {
         return BookingResponse.builder()
-                .id(booking.getId())
+                .id(String.valueOf(booking.getId()))
+                .externalId(booking.getExternalId())
+                .seriesId(booking.getSeriesId())
                 .date(booking.getDate())
                 .startTime(booking.getStartTime())
                 .endTime(booking.getEndTime())
@@ -89,11 +142,11 @@ public class BookingResponse {
                 .recurrenceType(booking.getRecurrenceType())
                 .endDate(booking.getEndDate())
                 .customDates(booking.getCustomDates())
-                .status(booking.getStatus())
+                .status(booking.getStatus() != null ? booking.getStatus().getValue() : null)
                 .userId(booking.getUserId())
                 .notes(booking.getNotes())
                 .createdAt(booking.getCreatedAt())
                 .updatedAt(booking.getUpdatedAt())
                 .build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.example.ResourceReserve.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Many bookings for one user in a single call, e.g. a row of desks for a
+ * team's offsite week. Each item is a regular booking request: a seat with a
+ * single date, or a date range given as a DAILY recurrence.
+ */
+@Data
+public class BulkBookingRequest {
+
+    @JsonProperty("items")
+    private List<BookingRequest> items;
+
+    @JsonProperty("userId")
+    private String userId;
+}
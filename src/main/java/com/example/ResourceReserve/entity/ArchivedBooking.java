@@ -0,0 +1,95 @@
+package com.example.ResourceReserve.entity;
+
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.entity.Booking.RecurrenceType;
+import com.example.ResourceReserve.entity.Booking.Status;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * A booking moved out of the live {@code bookings} table once it is older than
+ * the archive horizon (see {@code BookingArchiver}). Read-only; rows are only
+ * written by the archive job.
+ */
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+@Getter
+@NoArgsConstructor
+public class ArchivedBooking {
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "external_id")
+    private String externalId;
+
+    @Column(name = "series_id")
+    private Long seriesId;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "book_type", nullable = false)
+    private BookType bookType;
+
+    @Column(name = "sub_type")
+    private String subType;
+
+    @Column(name = "office_location")
+    private String officeLocation;
+
+    @Column(name = "building")
+    private String building;
+
+    @Column(name = "floor")
+    private String floor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "recurrence_type")
+    private RecurrenceType recurrenceType;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @ElementCollection
+    @BatchSize(size = 50)
+    @CollectionTable(name = "booking_custom_dates_archive", joinColumns = @JoinColumn(name = "booking_id"))
+    @Column(name = "custom_date")
+    private List<LocalDate> customDates;
+
+    @Convert(converter = BookingStatusConverter.class)
+    @Column(name = "status", nullable = false, columnDefinition = "TINYINT")
+    private Status status;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "notes")
+    private String notes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
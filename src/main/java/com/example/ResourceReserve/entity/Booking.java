@@ -1,6 +1,7 @@
 package com.example.ResourceReserve.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,9 +15,21 @@ import java.util.List;
 @EntityListeners(AuditingEntityListener.class)
 public class Booking {
 
+    // Sequential key from a pooled sequence: inserts append to the clustered index,
+    // and ids are assigned without a round trip per row, so series inserts still batch
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "id")
-    private String id;  // you can set this from frontend (UUID or custom)
+    private Long id;
+
+    // Id set by the client for this occurrence, or the string id of a booking created before numeric ids
+    @Column(name = "external_id")
+    private String externalId;
+
+    // Shared by all occurrences of one recurrence series; null for single bookings
+    @Column(name = "series_id")
+    private Long seriesId;
 
     @Column(name = "date", nullable = false)
     private LocalDate date;
@@ -50,13 +63,16 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDate endDate;
 
+    // Loaded lazily; when several bookings need it, batch the loads instead of one select per booking
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "booking_custom_dates", joinColumns = @JoinColumn(name = "booking_id"))
     @Column(name = "custom_date")
     private List<LocalDate> customDates;
 
-    @Column(name = "status")
-    private String status; // e.g. "confirmed", "cancelled", etc.
+    @Convert(converter = BookingStatusConverter.class)
+    @Column(name = "status", nullable = false, columnDefinition = "TINYINT")
+    private Status status;
 
     // Additional fields for ResourceReserve integration
     @Column(name = "user_id")
@@ -76,11 +92,10 @@ public class Booking {
     public Booking() {}
 
     // Constructor (you can use Lombok or generate via IDE)
-    public Booking(String id, LocalDate date, LocalTime startTime, LocalTime endTime,
+    public Booking(LocalDate date, LocalTime startTime, LocalTime endTime,
                    BookType bookType, String subType, String officeLocation, String building,
                    String floor, RecurrenceType recurrenceType, LocalDate endDate,
-                   List<LocalDate> customDates, String status) {
-        this.id = id;
+                   List<LocalDate> customDates, Status status) {
         this.date = date;
         this.startTime = startTime;
         this.endTime = endTime;
@@ -95,14 +110,30 @@ public class Booking {
         this.status = status;
     }
 
-    public String getId() {
+    public Long getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(Long id) {
         this.id = id;
     }
 
+    public String getExternalId() {
+        return externalId;
+    }
+
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+
+    public Long getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(Long seriesId) {
+        this.seriesId = seriesId;
+    }
+
     public LocalDate getDate() {
         return date;
     }
@@ -191,11 +222,11 @@ public class Booking {
         this.customDates = customDates;
     }
 
-    public String getStatus() {
+    public Status getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(Status status) {
         this.status = status;
     }
 
@@ -242,4 +273,48 @@ public class Booking {
         WEEKLY,
         CUSTOM
     }
+
+    /**
+     * Stored as a one-byte code (see {@link BookingStatusConverter}); the API
+     * keeps using the lower-case names.
+     */
+    public enum Status {
+        CONFIRMED(1, "confirmed"),
+        CANCELLED(2, "cancelled"),
+        COMPLETED(3, "completed");
+
+        private final int code;
+        private final String value;
+
+        Status(int code, String value) {
+            this.code = code;
+            this.value = value;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public static Status fromCode(int code) {
+            for (Status status : values()) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown booking status code: " + code);
+        }
+
+        public static Status fromValue(String value) {
+            for (Status status : values()) {
+                if (status.value.equalsIgnoreCase(value)) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown booking status: " + value);
+        }
+    }
 } 
\ No newline at end of file
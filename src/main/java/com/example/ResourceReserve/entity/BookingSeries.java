@@ -0,0 +1,149 @@
+package com.example.ResourceReserve.entity;
+
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.entity.Booking.RecurrenceType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rule of a recurring booking, stored once per series. Its occurrences
+ * are {@link Booking} rows linked by {@code seriesId}; they hold the seat,
+ * date and time slot that conflict checks need, but not the rule itself.
+ * Dates of the series are expanded from the rule on demand, over the window
+ * being read.
+ */
+@Entity
+@Table(name = "booking_series")
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class BookingSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_series_seq")
+    @SequenceGenerator(name = "booking_series_seq", sequenceName = "booking_series_seq", allocationSize = 1)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "recurrence_type", nullable = false)
+    private RecurrenceType recurrenceType;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    // Last day of a DAILY or WEEKLY series; null for CUSTOM
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @ElementCollection
+    @BatchSize(size = 50)
+    @CollectionTable(name = "booking_series_dates", joinColumns = @JoinColumn(name = "series_id"))
+    @Column(name = "custom_date")
+    private List<LocalDate> customDates = new ArrayList<>();
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "book_type", nullable = false)
+    private BookType bookType;
+
+    @Column(name = "sub_type")
+    private String subType;
+
+    @Column(name = "office_location")
+    private String officeLocation;
+
+    @Column(name = "building")
+    private String building;
+
+    @Column(name = "floor")
+    private String floor;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "notes")
+    private String notes;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Every date of the series, in order.
+     */
+    public List<LocalDate> occurrences() {
+        return occurrencesBetween(startDate, LocalDate.MAX);
+    }
+
+    /**
+     * The first {@code limit} dates of the series, in order. Expansion stops
+     * there, so a cap on a long series costs the cap, not the series.
+     */
+    public List<LocalDate> occurrences(int limit) {
+        return occurrencesBetween(startDate, LocalDate.MAX, limit);
+    }
+
+    /**
+     * Dates of the series within [from, to], in order. Only the window is
+     * walked, so reading a few weeks of a long series costs a few weeks.
+     */
+    public List<LocalDate> occurrencesBetween(LocalDate from, LocalDate to) {
+        return occurrencesBetween(from, to, Integer.MAX_VALUE);
+    }
+
+    private List<LocalDate> occurrencesBetween(LocalDate from, LocalDate to, int limit) {
+        List<LocalDate> dates = new ArrayList<>();
+        switch (recurrenceType) {
+            case NONE -> {
+                if (!startDate.isBefore(from) && !startDate.isAfter(to) && limit > 0) {
+                    dates.add(startDate);
+                }
+            }
+            case DAILY -> {
+                LocalDate last = endDate.isBefore(to) ? endDate : to;
+                for (LocalDate d = startDate.isBefore(from) ? from : startDate;
+                     !d.isAfter(last) && dates.size() < limit; d = d.plusDays(1)) {
+                    dates.add(d);
+                }
+            }
+            case WEEKLY -> {
+                LocalDate last = endDate.isBefore(to) ? endDate : to;
+                LocalDate first = startDate;
+                if (startDate.isBefore(from)) {
+                    // First weekly date on or after the window start
+                    long weeks = (ChronoUnit.DAYS.between(startDate, from) + 6) / 7;
+                    first = startDate.plusWeeks(weeks);
+                }
+                for (LocalDate d = first; !d.isAfter(last) && dates.size() < limit; d = d.plusWeeks(1)) {
+                    dates.add(d);
+                }
+            }
+            case CUSTOM -> customDates.stream()
+                    .filter(date -> !date.isBefore(from) && !date.isAfter(to))
+                    .distinct()
+                    .sorted()
+                    .limit(limit)
+                    .forEach(dates::add);
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ResourceReserve.entity;
+
+import com.example.ResourceReserve.entity.Booking.Status;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link Status} to its fixed TINYINT code. Codes are part of the schema
+ * (native queries and filtered indexes compare against them), so never
+ * renumber an existing status.
+ */
+@Converter
+public class BookingStatusConverter implements AttributeConverter<Status, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Status status) {
+        return status != null ? (short) status.getCode() : null;
+    }
+
+    @Override
+    public Status convertToEntityAttribute(Short code) {
+        return code != null ? Status.fromCode(code) : null;
+    }
+}
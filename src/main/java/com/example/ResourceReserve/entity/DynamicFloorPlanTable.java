@@ -1,11 +1,18 @@
 package com.example.ResourceReserve.entity;
 
 import jakarta.persistence.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.UUID;
 
 @Entity
-@Table(name = "dynamic_floor_plan_table")
+@Table(name = "dynamic_floor_plan_table",
+       uniqueConstraints = @UniqueConstraint(name = "uq_dynamic_floor_plan_location",
+                                             columnNames = {"office_location", "building_name", "floor_id"}))
 public class DynamicFloorPlanTable {
     
     @Id
@@ -24,6 +31,10 @@ public class DynamicFloorPlanTable {
     @Column(name = "plan_json", nullable = false, columnDefinition = "NVARCHAR(MAX)")
     private String planJson;
     
+    // SHA-256 of plan_json, used as the plan's version / ETag
+    @Column(name = "plan_hash", length = 64)
+    private String planHash;
+    
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
@@ -82,6 +93,10 @@ public class DynamicFloorPlanTable {
         this.planJson = planJson;
     }
     
+    public String getPlanHash() {
+        return planHash;
+    }
+    
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
@@ -90,6 +105,22 @@ public class DynamicFloorPlanTable {
         this.updatedAt = updatedAt;
     }
     
+    @PrePersist
+    @PreUpdate
+    void updatePlanHash() {
+        this.planHash = hashOf(planJson);
+    }
+    
+    // Content hash of a plan_json document
+    public static String hashOf(String planJson) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(planJson.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
     // Method to generate table name
     public String generateTableName() {
         return officeLocation + "_" + buildingName + "_Floor" + floorId + "_table";
@@ -10,7 +10,10 @@ import org.springframework.data.annotation.CreatedDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "ux_refresh_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "ix_refresh_tokens_expires_at", columnList = "expires_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,8 +24,9 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
     
-    @Column(nullable = false, unique = true, length = 1000)
-    private String token;
+    // SHA-256 hex of the token; the token itself is never stored
+    @Column(name = "token_hash", nullable = false, length = 64, columnDefinition = "CHAR(64)")
+    private String tokenHash;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -0,0 +1,81 @@
+package com.example.ResourceReserve.entity;
+
+import com.example.ResourceReserve.entity.Booking.BookType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One row per booked seat-day. Every booking transaction touches the rows of
+ * the seat-days it writes, so two application nodes booking the same seat-day
+ * concurrently collide on the row's version (or on its primary key when the
+ * row is new) and only one of them commits.
+ */
+@Entity
+@Table(name = "seat_reservations", indexes = @Index(name = "ix_seat_reservations_date", columnList = "date"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class SeatReservation implements Persistable<String> {
+
+    @Id
+    @Column(name = "id", length = 320)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "book_type", nullable = false)
+    private BookType bookType;
+
+    @Column(name = "sub_type")
+    private String subType;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Transient
+    private boolean isNew;
+
+    public SeatReservation(BookType bookType, String subType, LocalDate date) {
+        this.id = keyOf(bookType, subType, date);
+        this.bookType = bookType;
+        this.subType = subType;
+        this.date = date;
+        this.updatedAt = LocalDateTime.now();
+        this.isNew = true;
+    }
+
+    public static String keyOf(BookType bookType, String subType, LocalDate date) {
+        return bookType + "|" + subType + "|" + date;
+    }
+
+    /**
+     * Mark the seat-day as written by the current transaction; the resulting
+     * versioned update fails if another transaction got there first.
+     */
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.ResourceReserve.event;
+
+import com.example.ResourceReserve.entity.Booking;
+
+import java.util.List;
+
+/**
+ * Published by {@code BookingService} after a booking change has committed.
+ * Listeners run synchronously on the publishing thread, so keep them cheap.
+ */
+public record BookingChangedEvent(Type type, List<Booking> bookings) {
+
+    public enum Type {
+        CREATED,
+        CANCELLED
+    }
+
+    public static BookingChangedEvent created(List<Booking> bookings) {
+        return new BookingChangedEvent(Type.CREATED, List.copyOf(bookings));
+    }
+
+    public static BookingChangedEvent cancelled(Booking booking) {
+        return new BookingChangedEvent(Type.CANCELLED, List.of(booking));
+    }
+}
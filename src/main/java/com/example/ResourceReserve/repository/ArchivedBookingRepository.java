@@ -0,0 +1,21 @@
+package com.example.ResourceReserve.repository;
+
+import com.example.ResourceReserve.entity.ArchivedBooking;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    // Keyset pages of a user's archived bookings, newest first (same cursor as the live listings)
+    @Query("SELECT b FROM ArchivedBooking b WHERE b.userId = :userId AND "
+           + BookingRepository.AFTER_CURSOR + BookingRepository.NEWEST_FIRST)
+    List<ArchivedBooking> findPageByUserId(@Param("userId") String userId,
+                                           @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId, Limit limit);
+}
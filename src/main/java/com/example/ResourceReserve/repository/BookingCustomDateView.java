@@ -0,0 +1,14 @@
+package com.example.ResourceReserve.repository;
+
+import java.time.LocalDate;
+
+/**
+ * One custom date of a booking, used to load the custom dates of a whole
+ * page of bookings in a single query.
+ */
+public interface BookingCustomDateView {
+
+    Long getBookingId();
+
+    LocalDate getCustomDate();
+}
@@ -2,6 +2,8 @@ package com.example.ResourceReserve.repository;
 
 import com.example.ResourceReserve.entity.Booking;
 import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.entity.Booking.Status;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,17 +11,21 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, String> {
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+    
+    // Native queries compare status with its TINYINT code (1 = confirmed, see Booking.Status);
+    // the literal lets SQL Server use the filtered confirmed-bookings index
     
     // Check for booking conflicts - simplified approach
     @Query(value = "SELECT COUNT(*) FROM bookings b " +
            "WHERE b.date = :date " +
            "AND b.book_type = :bookType AND b.sub_type = :subType " +
-           "AND b.status = 'confirmed' " +
+           "AND b.status = 1 " +
            "AND NOT (b.end_time <= :startTime OR b.start_time >= :endTime)", 
            nativeQuery = true)
     int countConflictingBookings(@Param("date") LocalDate date, 
@@ -32,17 +38,77 @@ public interface BookingRepository extends JpaRepository<Booking, String> {
     @Query(value = "SELECT COUNT(*) FROM bookings b " +
            "WHERE b.date = :date " +
            "AND b.book_type = :bookType AND b.sub_type = :subType " +
-           "AND b.status = 'confirmed'", 
+           "AND b.status = 1", 
            nativeQuery = true)
     int countBookingsForDateAndSeat(@Param("date") LocalDate date, 
                                    @Param("bookType") String bookType, 
                                    @Param("subType") String subType);
     
+    // Set-based conflict check - dates among the given ones with a booking overlapping the time slot
+    @Query("SELECT DISTINCT b.date FROM Booking b " +
+           "WHERE b.date IN :dates " +
+           "AND b.bookType = :bookType AND b.subType = :subType " +
+           "AND b.status = com.example.ResourceReserve.entity.Booking.Status.CONFIRMED " +
+           "AND b.endTime > :startTime AND b.startTime < :endTime")
+    List<LocalDate> findConflictingDates(@Param("dates") Collection<LocalDate> dates,
+                                        @Param("startTime") LocalTime startTime,
+                                        @Param("endTime") LocalTime endTime,
+                                        @Param("bookType") BookType bookType,
+                                        @Param("subType") String subType);
+    
+    // Keyset pages of booking listings, newest first. Rows strictly after the cursor (afterDate, afterId)
+    // in (date DESC, id DESC) order; the first page passes (FIRST_PAGE_DATE, FIRST_PAGE_ID), which precedes
+    // every booking, including one dated on the last representable day.
+    String AFTER_CURSOR = "(b.date < :afterDate OR (b.date = :afterDate AND b.id < :afterId)) ";
+    String NEWEST_FIRST = "ORDER BY b.date DESC, b.id DESC";
+    LocalDate FIRST_PAGE_DATE = LocalDate.of(9999, 12, 31);
+    long FIRST_PAGE_ID = Long.MAX_VALUE;
+    
+    @Query("SELECT b FROM Booking b WHERE " + AFTER_CURSOR + NEWEST_FIRST)
+    List<Booking> findPage(@Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId, Limit limit);
+    
+    // Custom dates of a page of bookings in one query (read side of the listings)
+    @Query("SELECT b.id AS bookingId, d AS customDate FROM Booking b JOIN b.customDates d WHERE b.id IN :bookingIds")
+    List<BookingCustomDateView> findCustomDatesByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+    
+    // Bookings created before numeric ids, or with a client-supplied id, by their string id. A client id
+    // may have been reused after a cancellation, so the confirmed booking wins, then the newest one
+    Optional<Booking> findFirstByExternalIdOrderByStatusAscIdDesc(String externalId);
+    
+    // Those of the given client ids held by a confirmed booking (seeks the filtered ux_bookings_external_id)
+    @Query("SELECT b.externalId FROM Booking b WHERE b.externalId IN :externalIds " +
+           "AND b.status = com.example.ResourceReserve.entity.Booking.Status.CONFIRMED")
+    List<String> findConfirmedExternalIds(@Param("externalIds") Collection<String> externalIds);
+    
+    // Live occurrences of a series within a date window
+    List<Booking> findBySeriesIdAndDateBetweenOrderByDate(Long seriesId, LocalDate startDate, LocalDate endDate);
+    
     // Find bookings by user
-    List<Booking> findByUserIdOrderByDateDesc(String userId);
+    @Query("SELECT b FROM Booking b WHERE b.userId = :userId AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<Booking> findPageByUserId(@Param("userId") String userId,
+                                   @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId, Limit limit);
     
     // Find bookings by seat (subType)
-    List<Booking> findBySubTypeOrderByDateDesc(String subType);
+    @Query("SELECT b FROM Booking b WHERE b.subType = :subType AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<Booking> findPageBySubType(@Param("subType") String subType,
+                                    @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId, Limit limit);
+    
+    // Find bookings by status
+    @Query("SELECT b FROM Booking b WHERE b.status = :status AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<Booking> findPageByStatus(@Param("status") Status status,
+                                   @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId, Limit limit);
+    
+    // Find bookings on one date
+    @Query("SELECT b FROM Booking b WHERE b.date = :date AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<Booking> findPageByDate(@Param("date") LocalDate date,
+                                 @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId, Limit limit);
+    
+    // Find bookings by location and date
+    @Query("SELECT b FROM Booking b WHERE b.officeLocation = :officeLocation AND b.building = :building " +
+           "AND b.floor = :floor AND b.date = :date AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<Booking> findPageByLocation(@Param("officeLocation") String officeLocation, @Param("building") String building,
+                                     @Param("floor") String floor, @Param("date") LocalDate date,
+                                     @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId, Limit limit);
     
     // Find bookings by date range
     List<Booking> findByDateBetweenOrderByDate(LocalDate startDate, LocalDate endDate);
@@ -51,20 +117,37 @@ public interface BookingRepository extends JpaRepository<Booking, String> {
     List<Booking> findByOfficeLocationAndBuildingAndFloorAndDate(
             String officeLocation, String building, String floor, LocalDate date);
     
-    // Find bookings by status
-    List<Booking> findByStatusOrderByDateDesc(String status);
+    // Bookings of any status on a floor-day; answered from ix_bookings_location_date
+    long countByOfficeLocationAndBuildingAndFloorAndDate(
+            String officeLocation, String building, String floor, LocalDate date);
     
     // Find active bookings for a specific seat on a specific date
-    @Query(value = "SELECT * FROM bookings b WHERE b.sub_type = :seatId AND b.date = :date AND b.status = 'confirmed'", 
+    @Query(value = "SELECT * FROM bookings b WHERE b.sub_type = :seatId AND b.date = :date AND b.status = 1", 
            nativeQuery = true)
     List<Booking> findActiveBookingsBySeatAndDate(@Param("seatId") String seatId, @Param("date") LocalDate date);
     
-    // Find all bookings for a specific seat
-    List<Booking> findBySubTypeAndStatusOrderByDateDesc(String subType, String status);
+    // Seat/time slots of bookings from a given date onwards (used to warm the conflict index)
+    List<BookingSlotView> findSlotsByStatusAndDateGreaterThanEqual(Status status, LocalDate date);
+    
+    // Seat/time slots of confirmed bookings on one seat and a set of dates (bulk booking re-check)
+    @Query("SELECT b.id AS id, b.date AS date, b.startTime AS startTime, b.endTime AS endTime, " +
+           "b.bookType AS bookType, b.subType AS subType FROM Booking b " +
+           "WHERE b.subType = :subType AND b.date IN :dates AND b.bookType = :bookType " +
+           "AND b.status = com.example.ResourceReserve.entity.Booking.Status.CONFIRMED")
+    List<BookingSlotView> findConfirmedSlotsBySeatAndDates(@Param("bookType") BookType bookType,
+                                                           @Param("subType") String subType,
+                                                           @Param("dates") Collection<LocalDate> dates);
+    
+    // Seat/time slots of bookings on one floor and date (used to load floor occupancy)
+    List<BookingSlotView> findSlotsByOfficeLocationAndBuildingAndFloorAndDateAndStatus(
+            String officeLocation, String building, String floor, LocalDate date, Status status);
     
     // Find bookings by user and date range
     List<Booking> findByUserIdAndDateBetweenOrderByDateDesc(String userId, LocalDate startDate, LocalDate endDate);
     
+    // Same range oldest first (user dashboard)
+    List<Booking> findByUserIdAndDateBetweenOrderByDate(String userId, LocalDate startDate, LocalDate endDate);
+    
     // Find bookings by location and date range
     List<Booking> findByOfficeLocationAndBuildingAndFloorAndDateBetweenOrderByDateDesc(
             String officeLocation, String building, String floor, LocalDate startDate, LocalDate endDate);
@@ -72,7 +155,7 @@ public interface BookingRepository extends JpaRepository<Booking, String> {
     // Check if seat is booked for a specific time slot
     @Query(value = "SELECT COUNT(*) FROM bookings b " +
            "WHERE b.sub_type = :seatId AND b.date = :date " +
-           "AND b.status = 'confirmed' AND " +
+           "AND b.status = 1 AND " +
            "NOT (b.end_time <= :startTime OR b.start_time >= :endTime)", 
            nativeQuery = true)
     int countSeatBookingsForTimeSlot(@Param("seatId") String seatId, 
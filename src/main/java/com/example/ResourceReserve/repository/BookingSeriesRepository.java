@@ -0,0 +1,22 @@
+package com.example.ResourceReserve.repository;
+
+import com.example.ResourceReserve.entity.BookingSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+
+    // Series of a page of occurrences, with their custom dates, in one query
+    @Query("SELECT DISTINCT s FROM BookingSeries s LEFT JOIN FETCH s.customDates WHERE s.id IN :ids")
+    List<BookingSeries> findAllWithCustomDatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s FROM BookingSeries s LEFT JOIN FETCH s.customDates WHERE s.id = :id")
+    Optional<BookingSeries> findWithCustomDatesById(@Param("id") Long id);
+}
@@ -0,0 +1,25 @@
+package com.example.ResourceReserve.repository;
+
+import com.example.ResourceReserve.entity.Booking.BookType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Lightweight projection of a booking's seat and time slot, used to warm
+ * in-memory indexes without loading full entities.
+ */
+public interface BookingSlotView {
+
+    Long getId();
+
+    LocalDate getDate();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+
+    BookType getBookType();
+
+    String getSubType();
+}
@@ -26,6 +26,9 @@ public interface DynamicFloorPlanRepository extends JpaRepository<DynamicFloorPl
     // Check if table exists for given parameters
     boolean existsByOfficeLocationAndBuildingNameAndFloorId(String officeLocation, String buildingName, String floorId);
     
+    // Delete the plan for one floor
+    long deleteByOfficeLocationAndBuildingNameAndFloorId(String officeLocation, String buildingName, String floorId);
+    
     // Custom query to get all unique office locations
     @Query("SELECT DISTINCT d.officeLocation FROM DynamicFloorPlanTable d")
     List<String> findAllOfficeLocations();
@@ -3,18 +3,49 @@ package com.example.ResourceReserve.repository;
 import com.example.ResourceReserve.entity.RefreshToken;
 import com.example.ResourceReserve.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
     
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
     
-    Optional<RefreshToken> findByTokenAndIsRevokedFalse(String token);
+    Optional<RefreshToken> findByTokenHashAndIsRevokedFalse(String tokenHash);
     
-    void deleteByUser(User user);
+    // Rotate a live token in place: succeeds (returns 1) for exactly one caller per token
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.tokenHash = :newHash, r.expiresAt = :newExpiresAt " +
+           "WHERE r.tokenHash = :oldHash AND r.isRevoked = false AND r.expiresAt > :now")
+    int rotate(@Param("oldHash") String oldHash,
+               @Param("newHash") String newHash,
+               @Param("newExpiresAt") LocalDateTime newExpiresAt,
+               @Param("now") LocalDateTime now);
     
-    void deleteByUserAndIsRevokedTrue(User user);
-} 
\ No newline at end of file
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.user = :user")
+    int deleteByUser(@Param("user") User user);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.user = :user AND r.isRevoked = true")
+    int deleteByUserAndIsRevokedTrue(@Param("user") User user);
+    
+    // Purge chunks; small batches keep each delete's locks short. Expired and revoked rows are
+    // purged by separate statements so each can seek its own index (an OR of the two cannot)
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE TOP (:batchSize) FROM refresh_tokens WHERE expires_at < :now", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+    
+    // The literal lets SQL Server use the filtered ix_refresh_tokens_revoked
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE TOP (:batchSize) FROM refresh_tokens WHERE is_revoked = 1", nativeQuery = true)
+    int deleteRevoked(@Param("batchSize") int batchSize);
+}
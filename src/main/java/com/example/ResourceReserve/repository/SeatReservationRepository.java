@@ -0,0 +1,9 @@
+package com.example.ResourceReserve.repository;
+
+import com.example.ResourceReserve.entity.SeatReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SeatReservationRepository extends JpaRepository<SeatReservation, String> {
+}
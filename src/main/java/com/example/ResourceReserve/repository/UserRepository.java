@@ -15,6 +15,8 @@ public interface UserRepository extends JpaRepository<User, String> {
     
     Optional<User> findByEmailAndIsActiveTrue(String email);
     
+    Optional<UserStatusView> findStatusById(String id);
+    
     boolean existsByEmail(String email);
     
     List<User> findByIsActiveTrue();
@@ -0,0 +1,12 @@
+package com.example.ResourceReserve.repository;
+
+/**
+ * The parts of a user that decide whether their access tokens are still
+ * accepted, loaded without the permission collection.
+ */
+public interface UserStatusView {
+
+    String getEmail();
+
+    Boolean getIsActive();
+}
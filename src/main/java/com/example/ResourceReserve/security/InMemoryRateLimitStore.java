@@ -0,0 +1,59 @@
+package com.example.ResourceReserve.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-instance token buckets in a bounded, expiring map.
+ *
+ * Each bucket is a single AtomicLong holding its theoretical arrival time
+ * (the generic cell rate algorithm): a request is allowed when moving that
+ * time one refill interval ahead keeps it within one window of now. A
+ * compare-and-set loop updates it, so buckets need no locks and a request
+ * allocates nothing once its bucket exists. Idle buckets are evicted once a
+ * full window has passed, at which point they would be full again anyway.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public InMemoryRateLimitStore(long maxKeys, Duration maxWindow) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(maxWindow)
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(String key, Limit limit) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong());
+        long interval = limit.refillIntervalMillis();
+        long window = limit.window().toMillis();
+        while (true) {
+            long now = System.currentTimeMillis();
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            long ahead = next - now;
+            if (ahead > window) {
+                return ahead - window;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public long peek(String key, Limit limit) {
+        AtomicLong bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        long ahead = Math.max(bucket.get(), now) + limit.refillIntervalMillis() - now;
+        return Math.max(0, ahead - limit.window().toMillis());
+    }
+}
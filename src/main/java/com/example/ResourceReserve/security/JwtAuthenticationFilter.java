@@ -11,7 +11,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,7 +26,7 @@ import java.util.stream.Collectors;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
     
     @Override
     protected void doFilterInternal(
@@ -37,7 +37,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -47,17 +46,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            if (jwtService.validateToken(jwt, jwtService.getJwtSecret())) {
-                userEmail = jwtService.extractEmail(jwt, jwtService.getJwtSecret());
+            // Verify once; everything downstream reads the verified claims from the request
+            TokenClaims claims = jwtService.parseAccessToken(jwt);
+            if (claims != null) {
+                String userEmail = claims.email();
                 
-                if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-                    
-                    Set<SimpleGrantedAuthority> authorities = jwtService.extractPermissions(jwt, jwtService.getJwtSecret())
+                if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                        && userStatusCache.isAccepted(claims)) {
+                    // Only claims of an accepted token reach the controllers
+                    request.setAttribute(TokenClaims.REQUEST_ATTRIBUTE, claims);
+                    Set<SimpleGrantedAuthority> authorities = claims.permissions()
                             .stream()
                             .map(SimpleGrantedAuthority::new)
                             .collect(Collectors.toSet());
                     
+                    // Principal built from the token; no user lookup per request
+                    UserDetails userDetails = User.withUsername(userEmail)
+                            .password("")
+                            .authorities(authorities)
+                            .build();
+                    
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -0,0 +1,47 @@
+package com.example.ResourceReserve.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limits failed logins per (client IP, email). Only failed authentications
+ * take a permit, so a burst of successful logins from one office NAT or
+ * proxy address is never throttled, and guessing one account's password
+ * from one address is capped at rate.limit.login.attempts per window.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private final RateLimitStore store;
+    private final boolean enabled;
+    private final RateLimitStore.Limit limit;
+
+    public LoginAttemptLimiter(RateLimitStore store,
+                               @Value("${rate.limit.enabled:true}") boolean enabled,
+                               @Value("${rate.limit.login.attempts}") int attempts,
+                               @Value("${rate.limit.login.window}") long window) {
+        this.store = store;
+        this.enabled = enabled;
+        this.limit = new RateLimitStore.Limit(attempts, Duration.ofSeconds(window));
+    }
+
+    /**
+     * Milliseconds until another attempt is allowed, or 0 if one is allowed now.
+     */
+    public long retryAfterMillis(String clientAddress, String email) {
+        return enabled ? store.peek(key(clientAddress, email), limit) : 0;
+    }
+
+    public void recordFailure(String clientAddress, String email) {
+        if (enabled) {
+            store.tryAcquire(key(clientAddress, email), limit);
+        }
+    }
+
+    private static String key(String clientAddress, String email) {
+        return "login|" + clientAddress + "|" + (email != null ? email.trim().toLowerCase(Locale.ROOT) : "");
+    }
+}
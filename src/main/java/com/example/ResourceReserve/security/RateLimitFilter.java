@@ -0,0 +1,92 @@
+package com.example.ResourceReserve.security;
+
+import com.example.ResourceReserve.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Applies the rate.limit.* settings. Requests are grouped into an endpoint
+ * class; password resets are limited per client IP, all other API calls per
+ * authenticated user (or per IP when anonymous). Logins are not limited here
+ * but by {@link LoginAttemptLimiter}, which only counts failed attempts. Runs
+ * after {@link JwtAuthenticationFilter} so the user id is known.
+ *
+ * The client IP is the request's remote address, which reflects the
+ * forwarded headers of trusted proxies (server.forward-headers-strategy).
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitStore store;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final RateLimitStore.Limit passwordResetLimit;
+    private final RateLimitStore.Limit apiLimit;
+
+    public RateLimitFilter(RateLimitStore store,
+                           @Value("${rate.limit.enabled:true}") boolean enabled,
+                           @Value("${rate.limit.password.reset}") int passwordResets,
+                           @Value("${rate.limit.password.reset.window}") long passwordResetWindow,
+                           @Value("${rate.limit.api.requests}") int apiRequests,
+                           @Value("${rate.limit.api.window}") long apiWindow) {
+        this.store = store;
+        this.enabled = enabled;
+        this.passwordResetLimit = new RateLimitStore.Limit(passwordResets, Duration.ofSeconds(passwordResetWindow));
+        this.apiLimit = new RateLimitStore.Limit(apiRequests, Duration.ofSeconds(apiWindow));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod())
+                || request.getRequestURI().substring(request.getContextPath().length()).equals("/auth/login");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String key;
+        RateLimitStore.Limit limit;
+        if (path.equals("/auth/forgot-password") || path.equals("/auth/reset-password")) {
+            key = "reset|" + request.getRemoteAddr();
+            limit = passwordResetLimit;
+        } else {
+            TokenClaims claims = (TokenClaims) request.getAttribute(TokenClaims.REQUEST_ATTRIBUTE);
+            key = claims != null && claims.userId() != null
+                    ? "api|user|" + claims.userId()
+                    : "api|ip|" + request.getRemoteAddr();
+            limit = apiLimit;
+        }
+
+        long retryAfterMillis = store.tryAcquire(key, limit);
+        if (retryAfterMillis > 0) {
+            log.warn("Rate limit exceeded for {}", key);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((retryAfterMillis + 999) / 1000));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("RATE_LIMITED", "Too many requests, please try again later", "RATE_LIMITED"));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.ResourceReserve.security;
+
+import java.time.Duration;
+
+/**
+ * Backing state of the rate limiter. The default keeps buckets in memory per
+ * instance; a shared implementation (e.g. on Redis) can be registered as a
+ * bean to enforce one limit across all replicas.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Take one permit from the bucket identified by key.
+     *
+     * @return 0 if the request is allowed, otherwise the number of
+     *         milliseconds until a permit becomes available
+     */
+    long tryAcquire(String key, Limit limit);
+
+    /**
+     * Like {@link #tryAcquire} but without taking the permit, for limits that
+     * are only charged once the outcome of the request is known.
+     *
+     * @return 0 if a permit is available, otherwise the number of
+     *         milliseconds until one becomes available
+     */
+    long peek(String key, Limit limit);
+
+    /**
+     * At most {@code permits} requests per {@code window}; the full amount may
+     * be used as a burst and is refilled evenly over the window.
+     */
+    record Limit(int permits, Duration window) {
+
+        /**
+         * Milliseconds it takes to refill one permit.
+         */
+        public long refillIntervalMillis() {
+            return Math.max(1, window.toMillis() / permits);
+        }
+    }
+}
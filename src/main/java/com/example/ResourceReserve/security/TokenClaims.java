@@ -0,0 +1,46 @@
+package com.example.ResourceReserve.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been verified.
+ * {@link JwtAuthenticationFilter} verifies the access token once per request
+ * and, if the token's user is still accepted, stores the result under
+ * {@link #REQUEST_ATTRIBUTE}, so controllers never need to parse the token
+ * again.
+ */
+public record TokenClaims(String userId, String email, String role, Set<String> permissions, Instant expiresAt) {
+
+    public static final String REQUEST_ATTRIBUTE = "com.example.ResourceReserve.security.TokenClaims";
+
+    public static TokenClaims from(Claims claims) {
+        Object userIdObj = claims.get("userId");
+        return new TokenClaims(
+                userIdObj != null ? userIdObj.toString() : null,
+                claims.getSubject(),
+                claims.get("role", String.class),
+                permissionsOf(claims),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+
+    private static Set<String> permissionsOf(Claims claims) {
+        Object permissionsObj = claims.get("permissions");
+        if (permissionsObj instanceof List<?> permissionsList) {
+            // Filter only strings from the list
+            return permissionsList.stream()
+                    .filter(obj -> obj instanceof String)
+                    .map(obj -> (String) obj)
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        return Set.of(); // empty set if no permissions or not a list
+    }
+}
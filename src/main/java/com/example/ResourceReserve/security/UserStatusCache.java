@@ -0,0 +1,77 @@
+package com.example.ResourceReserve.security;
+
+import com.example.ResourceReserve.repository.UserRepository;
+import com.example.ResourceReserve.repository.UserStatusView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of whether a user's access tokens are still accepted.
+ *
+ * Authentication is derived from the token itself; the only per-request
+ * database state is whether the user is active and still has the email the
+ * token was issued for. Entries expire after a short TTL, which bounds how
+ * long a change made on another node goes unnoticed, and are invalidated
+ * directly by {@code UserService} on this node.
+ */
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Optional<UserStatus>> statusByUserId;
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${security.user-status.ttl-seconds:60}") long ttlSeconds,
+                           @Value("${security.user-status.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.statusByUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Whether a token with these claims belongs to an existing, active user
+     * whose email has not changed since the token was issued.
+     */
+    public boolean isAccepted(TokenClaims claims) {
+        if (claims.userId() == null) {
+            return false;
+        }
+        return statusByUserId.get(claims.userId(), this::load)
+                .map(status -> status.active() && status.email().equals(claims.email()))
+                .orElse(false);
+    }
+
+    /**
+     * Drop the cached state of a user. Called inside the transaction that
+     * changes the user, it is repeated after completion so a concurrent
+     * request cannot re-cache the state from before the change.
+     */
+    public void invalidate(String userId) {
+        statusByUserId.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    statusByUserId.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private Optional<UserStatus> load(String userId) {
+        return userRepository.findStatusById(userId)
+                .map(view -> new UserStatus(Boolean.TRUE.equals(view.getIsActive()), view.getEmail()));
+    }
+
+    private record UserStatus(boolean active, String email) {
+    }
+}
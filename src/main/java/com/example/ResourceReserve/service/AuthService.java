@@ -6,11 +6,13 @@ import com.example.ResourceReserve.entity.User;
 import com.example.ResourceReserve.entity.UserRole;
 import com.example.ResourceReserve.repository.RefreshTokenRepository;
 import com.example.ResourceReserve.repository.UserRepository;
+import com.example.ResourceReserve.security.TokenClaims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -62,6 +64,10 @@ public class AuthService {
                     .message("Login successful")
                     .build();
                     
+        } catch (AuthenticationException e) {
+            // Kept as is so callers can tell a rejected password from other failures
+            log.error("Login failed for user {}: {}", request.getEmail(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Login failed for user {}: {}", request.getEmail(), e.getMessage());
             throw new RuntimeException("Invalid credentials");
@@ -88,26 +94,29 @@ public class AuthService {
     @Transactional
     public RefreshTokenResponse refreshToken(RefreshTokenRequest request) {
         try {
-            if (!jwtService.validateToken(request.getRefreshToken(), jwtService.getJwtRefreshSecret())) {
+            TokenClaims claims = jwtService.parseToken(request.getRefreshToken(), jwtService.getJwtRefreshSecret());
+            if (claims == null) {
                 throw new RuntimeException("Invalid refresh token");
             }
             
-            String email = jwtService.extractEmail(request.getRefreshToken(), jwtService.getJwtRefreshSecret());
+            String email = claims.email();
             User user = userRepository.findByEmailAndIsActiveTrue(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
             
-            // Verify refresh token exists and is not revoked
-            RefreshToken refreshToken = refreshTokenRepository.findByTokenAndIsRevokedFalse(request.getRefreshToken())
-                    .orElseThrow(() -> new RuntimeException("Refresh token not found or revoked"));
-            
             // Generate new tokens
             String newAccessToken = jwtService.generateAccessToken(user);
             String newRefreshToken = jwtService.generateRefreshToken(user);
             
-            // Revoke old refresh token and save new one
-            refreshToken.setIsRevoked(true);
-            refreshTokenRepository.save(refreshToken);
-            saveRefreshToken(user, newRefreshToken);
+            // Swap the stored token for the new one in a single update; it only matches a live,
+            // unrevoked token, so a refresh token can be used once even under concurrent requests
+            int rotated = refreshTokenRepository.rotate(
+                    JwtService.digestOf(request.getRefreshToken()),
+                    JwtService.digestOf(newRefreshToken),
+                    LocalDateTime.now().plusSeconds(jwtService.getJwtRefreshExpiration()),
+                    LocalDateTime.now());
+            if (rotated == 0) {
+                throw new RuntimeException("Refresh token not found or revoked");
+            }
             
             return RefreshTokenResponse.builder()
                     .success(true)
@@ -227,7 +236,7 @@ public class AuthService {
     
     private void saveRefreshToken(User user, String token) {
         RefreshToken refreshToken = RefreshToken.builder()
-                .token(token)
+                .tokenHash(JwtService.digestOf(token))
                 .user(user)
                 .expiresAt(LocalDateTime.now().plusSeconds(jwtService.getJwtRefreshExpiration()))
                 .isRevoked(false)
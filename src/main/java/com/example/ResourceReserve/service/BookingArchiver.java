@@ -0,0 +1,94 @@
+package com.example.ResourceReserve.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Periodically moves bookings older than the archive horizon from
+ * {@code bookings} to {@code bookings_archive}, together with their custom
+ * dates. Confirmed bookings are archived as completed, and the
+ * {@code seat_reservations} rows of past seat-days are deleted. The live table then
+ * only holds current and recent bookings, which keeps the hot indexes small;
+ * archived bookings are read through {@link BookingService#getArchivedBookings}.
+ *
+ * Rows are moved in small chunks, each in its own short transaction, and
+ * rows locked by a running booking transaction are skipped until the next run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingArchiver {
+
+    private static final String ARCHIVE_CHUNK_SQL =
+        "SET NOCOUNT ON; " +
+        "DECLARE @ids TABLE (id BIGINT PRIMARY KEY); " +
+        "INSERT INTO @ids (id) SELECT TOP (?) id FROM bookings WITH (READPAST) WHERE date < ? ORDER BY date; " +
+        "INSERT INTO booking_custom_dates_archive (booking_id, custom_date) " +
+        "    SELECT d.booking_id, d.custom_date FROM booking_custom_dates d JOIN @ids i ON i.id = d.booking_id; " +
+        "DELETE d FROM booking_custom_dates d JOIN @ids i ON i.id = d.booking_id; " +
+        "DELETE b OUTPUT DELETED.id, DELETED.external_id, DELETED.series_id, DELETED.date, DELETED.start_time, " +
+        "    DELETED.end_time, DELETED.book_type, DELETED.sub_type, DELETED.office_location, DELETED.building, " +
+        "    DELETED.floor, DELETED.recurrence_type, DELETED.end_date, " +
+        "    CASE WHEN DELETED.status = 1 THEN 3 ELSE DELETED.status END, DELETED.user_id, " +
+        "    DELETED.notes, DELETED.created_at, DELETED.updated_at, ? " +
+        "  INTO bookings_archive (id, external_id, series_id, date, start_time, end_time, book_type, sub_type, " +
+        "    office_location, building, floor, recurrence_type, end_date, status, user_id, notes, created_at, " +
+        "    updated_at, archived_at) " +
+        "  FROM bookings b JOIN @ids i ON i.id = b.id; " +
+        "SELECT COUNT(*) FROM @ids;";
+
+    // Version rows only guard concurrent bookings of a seat-day, so past ones are dropped, not archived
+    private static final String PURGE_RESERVATIONS_CHUNK_SQL =
+        "DELETE TOP (?) FROM seat_reservations WITH (READPAST) WHERE date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.archive.enabled:true}")
+    private boolean enabled;
+
+    // Keep this well beyond the dashboard's history window (one month)
+    @Value("${booking.archive.horizon-days:90}")
+    private int horizonDays;
+
+    @Value("${booking.archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${booking.archive.initial-delay-ms:300000}",
+               fixedDelayString = "${booking.archive.interval-ms:86400000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(horizonDays);
+        LocalDateTime archivedAt = LocalDateTime.now();
+        int total = 0;
+        int reservations = 0;
+        try {
+            int moved;
+            int purged;
+            do {
+                Integer chunk = transactionTemplate.execute(status ->
+                        jdbcTemplate.queryForObject(ARCHIVE_CHUNK_SQL, Integer.class, batchSize, cutoff, archivedAt));
+                moved = chunk != null ? chunk : 0;
+                total += moved;
+                purged = jdbcTemplate.update(PURGE_RESERVATIONS_CHUNK_SQL, batchSize, cutoff);
+                reservations += purged;
+            } while (moved == batchSize || purged == batchSize);
+            if (total > 0 || reservations > 0) {
+                log.info("Archived {} bookings and purged {} seat reservations dated before {}", total, reservations, cutoff);
+            }
+        } catch (Exception e) {
+            log.error("Booking archive failed after {} rows and {} seat reservations: {}",
+                    total, reservations, e.getMessage(), e);
+        }
+    }
+}
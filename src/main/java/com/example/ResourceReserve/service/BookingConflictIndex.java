@@ -0,0 +1,252 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.event.BookingChangedEvent;
+import com.example.ResourceReserve.repository.BookingRepository;
+import com.example.ResourceReserve.repository.BookingSlotView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of confirmed bookings keyed by (bookType, subType, date).
+ *
+ * Each seat-day holds its time slots sorted by start time, so an overlap check
+ * is a binary search. The index is warmed from the database once the
+ * application is ready and is kept current from {@link BookingChangedEvent}s.
+ * Dates before the warmed horizon (or any lookup before warm-up finished) are
+ * answered from the database instead.
+ *
+ * Only this node's changes reach the index, so a booking cancelled on another
+ * node stays in it. The index is therefore used to clear dates: a date it
+ * reports as free is free, but a date it reports as taken is confirmed against
+ * the database before it is returned as a conflict.
+ *
+ * Requests are served while the index warms, so a booking cancelled during
+ * warm-up may still be in the rows being loaded. Such cancellations are
+ * recorded and applied again once the load has been merged.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingConflictIndex {
+
+    // Keeps IN lists well below SQL Server's 2100 parameter limit
+    private static final int MAX_DATES_PER_QUERY = 1000;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<SlotKey, SlotList> slotsBySeatAndDate = new ConcurrentHashMap<>();
+
+    // First date covered by the index; null until warm-up has completed
+    private volatile LocalDate indexedFrom;
+
+    // Bookings cancelled while warm-up runs; null when it is not running
+    private volatile Set<CancelledSlot> cancelledWhileWarming;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        LocalDate from = LocalDate.now();
+        Set<CancelledSlot> cancelled = ConcurrentHashMap.newKeySet();
+        cancelledWhileWarming = cancelled;
+        try {
+            List<BookingSlotView> slots = bookingRepository.findSlotsByStatusAndDateGreaterThanEqual(Booking.Status.CONFIRMED, from);
+            for (BookingSlotView view : slots) {
+                add(new SlotKey(view.getBookType(), view.getSubType(), view.getDate()),
+                        new Slot(view.getStartTime(), view.getEndTime(), view.getId()));
+            }
+            // The load may have read a booking before its cancellation committed. A cancellation
+            // recorded after this point finds the loaded slot already in place and removes it itself
+            for (CancelledSlot slot : cancelled) {
+                remove(slot.key(), slot.bookingId());
+            }
+            // A prune that ran during the load may have dropped past seat-days already merged
+            LocalDate today = LocalDate.now();
+            indexedFrom = from.isBefore(today) ? today : from;
+            log.info("Booking conflict index warmed with {} bookings across {} seat-days",
+                    slots.size(), slotsBySeatAndDate.size());
+        } catch (Exception e) {
+            log.error("Failed to warm booking conflict index, falling back to database checks: {}", e.getMessage(), e);
+        } finally {
+            cancelledWhileWarming = null;
+        }
+    }
+
+    /**
+     * Return the dates of the series on which the seat already has a booking
+     * overlapping [startTime, endTime). Indexed dates without an overlapping
+     * slot are cleared in memory; the rest, including indexed dates that may
+     * hold a slot cancelled on another node, are checked with one set-based
+     * query per chunk of dates.
+     */
+    public List<LocalDate> findConflictingDates(BookType bookType, String subType, Collection<LocalDate> dates,
+                                                LocalTime startTime, LocalTime endTime) {
+        List<LocalDate> unresolved = new ArrayList<>();
+        for (LocalDate date : dates) {
+            if (isIndexed(date)) {
+                SlotList slots = slotsBySeatAndDate.get(new SlotKey(bookType, subType, date));
+                if (slots != null && slots.overlaps(startTime, endTime)) {
+                    unresolved.add(date);
+                }
+            } else {
+                unresolved.add(date);
+            }
+        }
+        List<LocalDate> conflicts = findPersistedConflicts(bookType, subType, unresolved, startTime, endTime);
+        conflicts.sort(null);
+        return conflicts;
+    }
+
+    /**
+     * Same check as {@link #findConflictingDates} but answered by the database
+     * only, for use inside a booking transaction where the result must reflect
+     * bookings committed by other application nodes.
+     */
+    public List<LocalDate> findPersistedConflicts(BookType bookType, String subType, List<LocalDate> dates,
+                                                  LocalTime startTime, LocalTime endTime) {
+        List<LocalDate> conflicts = new ArrayList<>();
+        for (int from = 0; from < dates.size(); from += MAX_DATES_PER_QUERY) {
+            List<LocalDate> chunk = dates.subList(from, Math.min(from + MAX_DATES_PER_QUERY, dates.size()));
+            conflicts.addAll(bookingRepository.findConflictingDates(chunk, startTime, endTime, bookType, subType));
+        }
+        return conflicts;
+    }
+
+    /**
+     * Drop the seat-days that have passed. The horizon moves first, so a lookup
+     * racing with the prune goes to the database rather than to a missing entry.
+     */
+    @Scheduled(cron = "${booking.conflict-index.prune-cron:0 5 0 * * *}")
+    public void prune() {
+        LocalDate today = LocalDate.now();
+        LocalDate from = indexedFrom;
+        if (from != null && from.isBefore(today)) {
+            indexedFrom = today;
+        }
+        int before = slotsBySeatAndDate.size();
+        slotsBySeatAndDate.keySet().removeIf(key -> key.date().isBefore(today));
+        log.info("Pruned {} past seat-days from the booking conflict index", before - slotsBySeatAndDate.size());
+    }
+
+    public boolean isIndexed(LocalDate date) {
+        LocalDate from = indexedFrom;
+        return from != null && !date.isBefore(from);
+    }
+
+    // Package-private for BookingConflictIndexWarmUpTest
+    int indexedSeatDays() {
+        return slotsBySeatAndDate.size();
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        for (Booking booking : event.bookings()) {
+            if (event.type() == BookingChangedEvent.Type.CREATED) {
+                // Always record, even while warming: adds are idempotent per booking id
+                add(keyOf(booking), new Slot(booking.getStartTime(), booking.getEndTime(), booking.getId()));
+            } else {
+                Set<CancelledSlot> cancelled = cancelledWhileWarming;
+                if (cancelled != null) {
+                    // Recorded before removing, so warm-up either sees it or loaded the slot before us
+                    cancelled.add(new CancelledSlot(keyOf(booking), booking.getId()));
+                }
+                remove(keyOf(booking), booking.getId());
+            }
+        }
+    }
+
+    private void add(SlotKey key, Slot slot) {
+        slotsBySeatAndDate.compute(key, (k, slots) -> slots == null ? SlotList.of(slot) : slots.with(slot));
+    }
+
+    private void remove(SlotKey key, Long bookingId) {
+        slotsBySeatAndDate.computeIfPresent(key, (k, slots) -> slots.without(bookingId));
+    }
+
+    private static SlotKey keyOf(Booking booking) {
+        return new SlotKey(booking.getBookType(), booking.getSubType(), booking.getDate());
+    }
+
+    private record SlotKey(BookType bookType, String subType, LocalDate date) {
+    }
+
+    private record CancelledSlot(SlotKey key, Long bookingId) {
+    }
+
+    // Package-private for BookingConflictIndexSlotListTest
+    record Slot(LocalTime start, LocalTime end, Long bookingId) {
+        static final Comparator<Slot> BY_START = Comparator.comparing(Slot::start).thenComparing(Slot::end);
+    }
+
+    /**
+     * Immutable slot list for one seat-day, sorted by start time. maxEnd[i] is
+     * the latest end among slots[0..i], which keeps the overlap check a single
+     * binary search even if legacy data contains overlapping slots.
+     */
+    static final class SlotList {
+
+        private final Slot[] slots;
+        private final LocalTime[] maxEnd;
+
+        private SlotList(Slot[] slots) {
+            Arrays.sort(slots, Slot.BY_START);
+            this.slots = slots;
+            this.maxEnd = new LocalTime[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                maxEnd[i] = i == 0 || slots[i].end().isAfter(maxEnd[i - 1]) ? slots[i].end() : maxEnd[i - 1];
+            }
+        }
+
+        static SlotList of(Slot slot) {
+            return new SlotList(new Slot[] { slot });
+        }
+
+        SlotList with(Slot slot) {
+            for (Slot existing : slots) {
+                if (existing.bookingId().equals(slot.bookingId())) {
+                    return this;
+                }
+            }
+            Slot[] updated = Arrays.copyOf(slots, slots.length + 1);
+            updated[slots.length] = slot;
+            return new SlotList(updated);
+        }
+
+        SlotList without(Long bookingId) {
+            Slot[] remaining = Arrays.stream(slots)
+                    .filter(slot -> !slot.bookingId().equals(bookingId))
+                    .toArray(Slot[]::new);
+            return remaining.length == 0 ? null : new SlotList(remaining);
+        }
+
+        boolean overlaps(LocalTime start, LocalTime end) {
+            // Slots starting at or after the requested end cannot overlap; find the first of them
+            int low = 0;
+            int high = slots.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (slots[mid].start().isBefore(end)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low > 0 && maxEnd[low - 1].isAfter(start);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.dto.BookingResponse;
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.event.BookingChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model behind the user dashboard: a user's bookings from a month back
+ * to a month ahead, split into history, today and upcoming.
+ *
+ * The whole window is read with one query on (user_id, date) and partitioned
+ * in memory. Dashboards are cached per user and dropped when one of the
+ * user's bookings changes; the TTL bounds staleness from changes made on
+ * other nodes.
+ */
+@Service
+public class BookingDashboardService {
+
+    private final BookingService bookingService;
+    private final Cache<String, Dashboard> dashboardsByUserId;
+
+    public BookingDashboardService(BookingService bookingService,
+                                   @Value("${booking.dashboard.cache-ttl-seconds:300}") long ttlSeconds,
+                                   @Value("${booking.dashboard.cache-max-size:10000}") long maxSize) {
+        this.bookingService = bookingService;
+        this.dashboardsByUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Dashboard getDashboard(String userId) {
+        LocalDate today = LocalDate.now();
+        Dashboard dashboard = dashboardsByUserId.get(userId, id -> load(id, today));
+        if (!today.equals(dashboard.day())) {
+            // Built before midnight: today's bookings have moved. Reloaded inside the entry's
+            // compute, like the first load, so an invalidation cannot slip in before the write
+            dashboard = dashboardsByUserId.asMap().compute(userId, (id, cached) ->
+                    cached != null && today.equals(cached.day()) ? cached : load(id, today));
+        }
+        return dashboard;
+    }
+
+    /**
+     * Runs after the change has committed. An invalidation waits for a load of
+     * the same user that is in flight, so a dashboard read before the commit
+     * is never kept.
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        event.bookings().stream()
+                .map(Booking::getUserId)
+                .filter(userId -> userId != null)
+                .distinct()
+                .forEach(dashboardsByUserId::invalidate);
+    }
+
+    private Dashboard load(String userId, LocalDate today) {
+        List<BookingResponse> bookings = bookingService.getBookingResponsesByUserAndDateRange(
+                userId, today.minusMonths(1), today.plusMonths(1));
+
+        List<BookingResponse> history = new ArrayList<>();
+        List<BookingResponse> todays = new ArrayList<>();
+        List<BookingResponse> upcoming = new ArrayList<>();
+        for (BookingResponse booking : bookings) {
+            if (booking.getDate().isBefore(today)) {
+                history.add(booking);
+            } else if (booking.getDate().isAfter(today)) {
+                upcoming.add(booking);
+            } else {
+                todays.add(booking);
+            }
+        }
+        return new Dashboard(today, List.copyOf(todays), List.copyOf(upcoming), List.copyOf(history));
+    }
+
+    public record Dashboard(LocalDate day, List<BookingResponse> today, List<BookingResponse> upcoming,
+                            List<BookingResponse> history) {
+
+        public int totalBookings() {
+            return today.size() + upcoming.size() + history.size();
+        }
+    }
+}
@@ -1,21 +1,52 @@
 package com.example.ResourceReserve.service;
 
 import com.example.ResourceReserve.dto.BookingRequest;
+import com.example.ResourceReserve.dto.BookingResponse;
+import com.example.ResourceReserve.entity.ArchivedBooking;
 import com.example.ResourceReserve.entity.Booking;
 import com.example.ResourceReserve.entity.Booking.BookType;
 import com.example.ResourceReserve.entity.Booking.RecurrenceType;
+import com.example.ResourceReserve.entity.BookingSeries;
+import com.example.ResourceReserve.entity.SeatReservation;
+import com.example.ResourceReserve.repository.ArchivedBookingRepository;
+import com.example.ResourceReserve.repository.BookingCustomDateView;
 import com.example.ResourceReserve.repository.BookingRepository;
+import com.example.ResourceReserve.repository.BookingSeriesRepository;
+import com.example.ResourceReserve.repository.BookingSlotView;
+import com.example.ResourceReserve.event.BookingChangedEvent;
+import com.example.ResourceReserve.repository.SeatReservationRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -23,74 +54,525 @@ import java.util.UUID;
 public class BookingService {
 
     private final BookingRepository bookingRepository;
+    private final BookingConflictIndex conflictIndex;
+    private final SeatLockManager seatLockManager;
+    private final SeatReservationRepository seatReservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    
+    @Value("${booking.page.max-size:500}")
+    private int maxPageSize;
+    
+    @Value("${booking.stream.page-size:500}")
+    private int streamPageSize;
+    
+    @Value("${booking.series.max-window-days:366}")
+    private int maxSeriesWindowDays;
+    
+    @Value("${booking.bulk.max-items:100}")
+    private int maxBulkItems;
+    
+    // Keeps the seat-day lookups of one batch well below SQL Server's 2100 parameter limit
+    @Value("${booking.bulk.max-occurrences:1000}")
+    private int maxBulkOccurrences;
+    
+    // Keeps IN lists of ids and dates well below SQL Server's 2100 parameter limit
+    private static final int MAX_IDS_PER_QUERY = 1000;
 
+    /**
+     * Create a booking or a whole recurrence series. The series is checked for
+     * conflicts up front and then inserted in JDBC batches within one
+     * transaction, so a conflict never leaves a partial series behind. The
+     * recurrence rule is stored once as a {@link BookingSeries}; each
+     * occurrence is a booking row that only references it.
+     *
+     * Concurrent requests for the same seat-day are serialized by striped
+     * in-JVM locks held until commit; across application nodes the seat-day
+     * rows in seat_reservations act as the guard (see {@link SeatReservation}).
+     */
     public List<Booking> createBooking(BookingRequest request, String userId) {
         log.info("Creating booking for user: {}, seat: {}, date: {}", userId, request.getSubType(), request.getDate());
         
         try {
-            log.info("Generating booking dates...");
-            List<LocalDate> bookingDates = generateBookingDates(request);
-            log.info("Generated {} booking dates", bookingDates.size());
-            
-            List<Booking> savedBookings = new ArrayList<>();
-            
             log.info("Parsing time values...");
             LocalTime startTime = LocalTime.parse(request.getStartTime());
             LocalTime endTime = LocalTime.parse(request.getEndTime());
             log.info("Parsed times: {} to {}", startTime, endTime);
             
             // Validate time
-            if (endTime.isBefore(startTime)) {
-                throw new IllegalArgumentException("End time cannot be before start time");
+            if (!endTime.isAfter(startTime)) {
+                throw new IllegalArgumentException("End time must be after start time");
+            }
+            
+            log.info("Generating booking dates...");
+            BookingSeries series = seriesOf(request, startTime, endTime, userId);
+            List<LocalDate> bookingDates = series != null
+                    ? series.occurrences() : List.of(LocalDate.parse(request.getDate()));
+            if (bookingDates.isEmpty()) {
+                throw new IllegalArgumentException("Recurrence does not produce any booking dates");
             }
+            log.info("Generated {} booking dates", bookingDates.size());
+            
+            // Fail fast on the in-memory index before taking any lock
+            log.info("Checking for booking conflicts...");
+            throwIfConflicting(conflictIndex.findConflictingDates(
+                    request.getBookType(), request.getSubType(), bookingDates, startTime, endTime));
             
-            for (LocalDate date : bookingDates) {
-                log.info("Processing date: {}", date);
+            List<String> lockKeys = bookingDates.stream()
+                    .map(date -> SeatReservation.keyOf(request.getBookType(), request.getSubType(), date))
+                    .toList();
+            
+            try (SeatLockManager.Locks ignored = seatLockManager.lockAll(lockKeys)) {
+                List<Booking> savedBookings = transactionTemplate.execute(status ->
+                        writeSeries(request, series, bookingDates, startTime, endTime, userId));
+                eventPublisher.publishEvent(BookingChangedEvent.created(savedBookings));
                 
-                // Check for booking conflicts
-                log.info("Checking for booking conflicts...");
-                if (hasBookingConflict(date, startTime, endTime, request.getBookType(), request.getSubType())) {
-                    throw new IllegalStateException("Item already booked on " + date);
+                log.info("All bookings created successfully, total: {}", savedBookings.size());
+                return savedBookings;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (isExternalIdInUse(e)) {
+                    // Another request took the client id between our check and commit; a retry cannot succeed
+                    throw new IllegalArgumentException("Booking id " + request.getId() + " is already in use", e);
                 }
-                log.info("No conflicts found");
-                
-                // Create booking
-                log.info("Creating booking entity...");
-                Booking booking = createBookingEntity(request, date, startTime, endTime, userId);
-                log.info("Saving booking to database...");
-                savedBookings.add(bookingRepository.save(booking));
-                log.info("Booking saved successfully");
+                // Another node wrote one of these seat-days between our check and commit
+                throw new IllegalStateException("Item was just booked by another request, please retry", e);
             }
-            
-            log.info("All bookings created successfully, total: {}", savedBookings.size());
-            return savedBookings;
         } catch (Exception e) {
             log.error("Error in createBooking: {}", e.getMessage(), e);
             throw e;
         }
     }
     
-    public List<Booking> getBookings(String userId, String seatId, String date, String status) {
-        if (userId != null) {
-            return bookingRepository.findByUserIdOrderByDateDesc(userId);
-        } else if (seatId != null) {
-            return bookingRepository.findBySubTypeOrderByDateDesc(seatId);
-        } else if (date != null) {
-            LocalDate bookingDate = LocalDate.parse(date);
-            return bookingRepository.findByDateBetweenOrderByDate(bookingDate, bookingDate);
-        } else if (status != null) {
-            return bookingRepository.findByStatusOrderByDateDesc(status);
-        } else {
-            return bookingRepository.findAll();
+    private List<Booking> writeSeries(BookingRequest request, BookingSeries series, List<LocalDate> bookingDates,
+                                      LocalTime startTime, LocalTime endTime, String userId) {
+        BookType bookType = request.getBookType();
+        String subType = request.getSubType();
+        
+        // Claim the seat-day rows first, then re-check against committed data
+        Map<String, SeatReservation> reservations = new HashMap<>();
+        seatReservationRepository.findAllById(bookingDates.stream()
+                        .map(date -> SeatReservation.keyOf(bookType, subType, date))
+                        .toList())
+                .forEach(reservation -> reservations.put(reservation.getId(), reservation));
+        
+        throwIfConflicting(conflictIndex.findPersistedConflicts(bookType, subType, bookingDates, startTime, endTime));
+        log.info("No conflicts found");
+        
+        List<LocalDate> idInUse = datesWithExternalIdInUse(request, bookingDates);
+        if (!idInUse.isEmpty()) {
+            throw new IllegalArgumentException("Booking id " + request.getId() + " is already in use on " + idInUse.get(0));
+        }
+        
+        // Occurrences of a recurring booking reference the stored rule. Flushed first:
+        // ordered inserts would otherwise be free to write the occurrences before it
+        Long seriesId = series != null ? bookingSeriesRepository.saveAndFlush(series).getId() : null;
+        
+        List<SeatReservation> newReservations = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>(bookingDates.size());
+        for (LocalDate date : bookingDates) {
+            SeatReservation reservation = reservations.get(SeatReservation.keyOf(bookType, subType, date));
+            if (reservation == null) {
+                newReservations.add(new SeatReservation(bookType, subType, date));
+            } else {
+                reservation.touch();
+            }
+            bookings.add(createBookingEntity(request, date, startTime, endTime, userId, seriesId));
+        }
+        
+        log.info("Saving {} bookings to database...", bookings.size());
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        seatReservationRepository.saveAll(newReservations);
+        // Surface version/primary-key collisions here rather than at commit
+        seatReservationRepository.flush();
+        return savedBookings;
+    }
+    
+    /**
+     * Book many items (a seat and a date or date range each) for one user,
+     * all or nothing. Every item is validated and checked for conflicts,
+     * against existing bookings and against the other items, before anything
+     * is written; the whole batch is then checked once more against committed
+     * bookings with a single set-based query and inserted in one batched
+     * transaction. The result has one entry per item, in request order, and
+     * is only committed when every item could be booked.
+     */
+    public BulkBookingResult createBookings(List<BookingRequest> items, String userId) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        if (items.size() > maxBulkItems) {
+            throw new IllegalArgumentException("At most " + maxBulkItems + " items can be booked at once");
+        }
+        log.info("Creating {} bulk booking items for user: {}", items.size(), userId);
+        
+        List<BulkItem> planned = new ArrayList<>(items.size());
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+        Set<String> externalIds = new HashSet<>();
+        int occurrences = 0;
+        for (int index = 0; index < items.size(); index++) {
+            BookingRequest request = items.get(index);
+            try {
+                LocalTime startTime = LocalTime.parse(request.getStartTime());
+                LocalTime endTime = LocalTime.parse(request.getEndTime());
+                if (!endTime.isAfter(startTime)) {
+                    throw new IllegalArgumentException("End time must be after start time");
+                }
+                if (request.getBookType() == null || request.getSubType() == null || request.getSubType().isBlank()) {
+                    throw new IllegalArgumentException("bookType and subType are required");
+                }
+                BookingSeries series = seriesOf(request, startTime, endTime, userId);
+                // Expanded no further than the dates left under the cap, plus one to detect going over it
+                List<LocalDate> dates = series != null
+                        ? series.occurrences(maxBulkOccurrences - occurrences + 1)
+                        : List.of(LocalDate.parse(request.getDate()));
+                if (dates.isEmpty()) {
+                    throw new IllegalArgumentException("Recurrence does not produce any booking dates");
+                }
+                if (request.getId() != null) {
+                    // Two items of the batch would write the same external id
+                    for (LocalDate date : dates) {
+                        if (!externalIds.add(externalIdOf(request, date))) {
+                            throw new IllegalArgumentException(
+                                    "Booking id " + request.getId() + " is used by more than one item on " + date);
+                        }
+                    }
+                }
+                planned.add(new BulkItem(index, request, series, dates, startTime, endTime));
+                occurrences += dates.size();
+                results.add(null);
+            } catch (RuntimeException e) {
+                results.add(BulkItemResult.invalid(index, e.getMessage() != null ? e.getMessage() : "Invalid booking item"));
+            }
+            if (occurrences > maxBulkOccurrences) {
+                throw new IllegalArgumentException("At most " + maxBulkOccurrences + " booking dates can be booked at once");
+            }
+        }
+        
+        // Fail fast on the in-memory index, and on items overlapping each other, before taking any lock
+        checkConflicts(planned, results, conflictsByItem(planned, item -> conflictIndex.findConflictingDates(
+                item.request().getBookType(), item.request().getSubType(), item.dates(), item.startTime(), item.endTime())));
+        if (results.stream().anyMatch(Objects::nonNull)) {
+            return BulkBookingResult.rejected(results);
+        }
+        
+        List<String> lockKeys = planned.stream()
+                .flatMap(item -> item.dates().stream()
+                        .map(date -> SeatReservation.keyOf(item.request().getBookType(), item.request().getSubType(), date)))
+                .distinct()
+                .toList();
+        
+        try (SeatLockManager.Locks ignored = seatLockManager.lockAll(lockKeys)) {
+            List<Booking> savedBookings = transactionTemplate.execute(status -> {
+                List<Booking> written = writeBatch(planned, lockKeys, results, userId);
+                if (written == null) {
+                    status.setRollbackOnly();
+                }
+                return written;
+            });
+            if (savedBookings == null) {
+                return BulkBookingResult.rejected(results);
+            }
+            eventPublisher.publishEvent(BookingChangedEvent.created(savedBookings));
+            
+            List<BookingResponse> responses = toResponses(savedBookings);
+            int offset = 0;
+            for (BulkItem item : planned) {
+                List<BookingResponse> itemBookings = responses.subList(offset, offset + item.dates().size());
+                results.set(item.index(), BulkItemResult.booked(item.index(), List.copyOf(itemBookings)));
+                offset += item.dates().size();
+            }
+            log.info("Bulk booking created {} bookings for {} items", savedBookings.size(), planned.size());
+            return new BulkBookingResult(true, results);
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            if (isExternalIdInUse(e)) {
+                // Another request took one of the client ids between our check and commit; a retry cannot succeed
+                throw new IllegalArgumentException("A booking id of these items is already in use", e);
+            }
+            // Another node wrote one of these seat-days between our check and commit
+            throw new IllegalStateException("Items were just booked by another request, please retry", e);
+        }
+    }
+    
+    /**
+     * Claim the seat-days of the batch, re-check it against committed data and
+     * insert it. Returns null, with the conflicts recorded in the results,
+     * when an item can no longer be booked.
+     */
+    private List<Booking> writeBatch(List<BulkItem> planned, List<String> lockKeys,
+                                     List<BulkItemResult> results, String userId) {
+        Map<String, SeatReservation> reservations = new HashMap<>();
+        seatReservationRepository.findAllById(lockKeys)
+                .forEach(reservation -> reservations.put(reservation.getId(), reservation));
+        
+        // Confirmed slots on exactly the seat-days of the batch: one query per seat and chunk of its dates
+        Map<Seat, Set<LocalDate>> datesBySeat = new HashMap<>();
+        for (BulkItem item : planned) {
+            datesBySeat.computeIfAbsent(new Seat(item.request().getBookType(), item.request().getSubType()),
+                    seat -> new HashSet<>()).addAll(item.dates());
+        }
+        Map<SeatDay, List<BookingSlotView>> persisted = new HashMap<>();
+        datesBySeat.forEach((seat, seatDates) -> {
+            List<LocalDate> dates = List.copyOf(seatDates);
+            for (int from = 0; from < dates.size(); from += MAX_IDS_PER_QUERY) {
+                for (BookingSlotView slot : bookingRepository.findConfirmedSlotsBySeatAndDates(seat.bookType(), seat.subType(),
+                        dates.subList(from, Math.min(dates.size(), from + MAX_IDS_PER_QUERY)))) {
+                    persisted.computeIfAbsent(new SeatDay(slot.getBookType(), slot.getSubType(), slot.getDate()),
+                            key -> new ArrayList<>()).add(slot);
+                }
+            }
+        });
+        checkConflicts(planned, results, conflictsByItem(planned, item -> item.dates().stream()
+                .filter(date -> persisted.getOrDefault(item.seatDay(date), List.of()).stream()
+                        .anyMatch(slot -> item.overlaps(slot.getStartTime(), slot.getEndTime())))
+                .toList()));
+        for (BulkItem item : planned) {
+            List<LocalDate> idInUse = datesWithExternalIdInUse(item.request(), item.dates());
+            if (!idInUse.isEmpty() && results.get(item.index()) == null) {
+                results.set(item.index(), BulkItemResult.invalid(item.index(),
+                        "Booking id " + item.request().getId() + " is already in use on " + idInUse.get(0)));
+            }
+        }
+        if (results.stream().anyMatch(Objects::nonNull)) {
+            return null;
+        }
+        log.info("No conflicts found");
+        
+        List<SeatReservation> newReservations = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (BulkItem item : planned) {
+            BookType bookType = item.request().getBookType();
+            String subType = item.request().getSubType();
+            Long seriesId = item.series() != null ? bookingSeriesRepository.saveAndFlush(item.series()).getId() : null;
+            for (LocalDate date : item.dates()) {
+                // Several items may share a seat-day with different time slots; it is claimed once
+                String key = SeatReservation.keyOf(bookType, subType, date);
+                SeatReservation reservation = reservations.get(key);
+                if (reservation == null) {
+                    reservation = new SeatReservation(bookType, subType, date);
+                    reservations.put(key, reservation);
+                    newReservations.add(reservation);
+                } else {
+                    reservation.touch();
+                }
+                bookings.add(createBookingEntity(item.request(), date, item.startTime(), item.endTime(), userId, seriesId));
+            }
+        }
+        
+        log.info("Saving {} bulk bookings to database...", bookings.size());
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        seatReservationRepository.saveAll(newReservations);
+        // Surface version/primary-key collisions here rather than at commit
+        seatReservationRepository.flush();
+        return savedBookings;
+    }
+    
+    /**
+     * Dates on which the request's client id is already held by a confirmed
+     * booking. A client id names one live booking per date; it is free again
+     * once that booking is cancelled.
+     */
+    private List<LocalDate> datesWithExternalIdInUse(BookingRequest request, List<LocalDate> dates) {
+        if (request.getId() == null) {
+            return List.of();
+        }
+        Set<String> inUse = new HashSet<>();
+        for (int from = 0; from < dates.size(); from += MAX_IDS_PER_QUERY) {
+            inUse.addAll(bookingRepository.findConfirmedExternalIds(dates.subList(from, Math.min(dates.size(), from + MAX_IDS_PER_QUERY))
+                    .stream()
+                    .map(date -> externalIdOf(request, date))
+                    .toList()));
+        }
+        return dates.stream().filter(date -> inUse.contains(externalIdOf(request, date))).toList();
+    }
+    
+    // The unique index on the client ids of confirmed bookings, as opposed to a seat-day collision
+    private static boolean isExternalIdInUse(DataAccessException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("ux_bookings_external_id");
+    }
+    
+    private static String externalIdOf(BookingRequest request, LocalDate date) {
+        return request.getId() + "_" + date;
+    }
+    
+    /**
+     * Record a conflict result for every item that overlaps an existing
+     * booking (as reported by {@code existingConflicts}) or an earlier item of
+     * the same batch.
+     */
+    private void checkConflicts(List<BulkItem> planned, List<BulkItemResult> results,
+                                Map<Integer, List<LocalDate>> existingConflicts) {
+        Map<SeatDay, List<BulkItem>> accepted = new HashMap<>();
+        for (BulkItem item : planned) {
+            List<LocalDate> conflicts = new ArrayList<>(existingConflicts.getOrDefault(item.index(), List.of()));
+            for (LocalDate date : item.dates()) {
+                List<BulkItem> sameSeatDay = accepted.computeIfAbsent(item.seatDay(date), key -> new ArrayList<>());
+                boolean overlapsBatch = sameSeatDay.stream()
+                        .anyMatch(other -> item.overlaps(other.startTime(), other.endTime()));
+                if (overlapsBatch && !conflicts.contains(date)) {
+                    conflicts.add(date);
+                }
+                sameSeatDay.add(item);
+            }
+            if (!conflicts.isEmpty()) {
+                conflicts.sort(null);
+                results.set(item.index(), BulkItemResult.conflict(item.index(), conflicts));
+            }
+        }
+    }
+    
+    private Map<Integer, List<LocalDate>> conflictsByItem(List<BulkItem> planned,
+                                                 Function<BulkItem, List<LocalDate>> conflicts) {
+        Map<Integer, List<LocalDate>> byItem = new HashMap<>();
+        for (BulkItem item : planned) {
+            List<LocalDate> dates = conflicts.apply(item);
+            if (!dates.isEmpty()) {
+                byItem.put(item.index(), dates);
+            }
+        }
+        return byItem;
+    }
+    
+    private void throwIfConflicting(List<LocalDate> conflicts) {
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("Item already booked on " + conflicts.get(0));
+        }
+    }
+    
+    /**
+     * One page of bookings matching the first given filter (user, seat, date,
+     * status; none lists all bookings), newest first. Pages are read by
+     * keyset on (date, id), so a page costs the same however deep it is.
+     */
+    public BookingPage getBookings(String userId, String seatId, String date, String status, String cursor, int limit) {
+        return page(listingQuery(userId, seatId, date, status), cursor, limit);
+    }
+    
+    /**
+     * Write every booking matching the filters as one JSON response, reading
+     * it page by page. Each page is read in its own short transaction, so
+     * neither the persistence context nor a database connection is held while
+     * the client consumes the response.
+     */
+    public StreamingResponseBody streamBookings(String userId, String seatId, String date, String status) {
+        PageQuery query = listingQuery(userId, seatId, date, status);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", "Bookings retrieved successfully");
+                generator.writeObjectFieldStart("data");
+                generator.writeArrayFieldStart("bookings");
+                
+                long count = 0;
+                Cursor after = Cursor.FIRST_PAGE;
+                while (true) {
+                    Cursor pageAfter = after;
+                    StreamedPage page = readOnlyTransaction.execute(tx -> {
+                        List<Booking> rows = query.find(pageAfter.date(), pageAfter.id(), Limit.of(streamPageSize));
+                        return new StreamedPage(toResponses(rows), rows.isEmpty() ? null : Cursor.after(rows.get(rows.size() - 1)));
+                    });
+                    if (page == null || page.bookings().isEmpty()) {
+                        break;
+                    }
+                    for (BookingResponse booking : page.bookings()) {
+                        generator.writeObject(booking);
+                    }
+                    generator.flush();
+                    count += page.bookings().size();
+                    if (page.bookings().size() < streamPageSize) {
+                        break;
+                    }
+                    after = page.last();
+                }
+                
+                generator.writeEndArray();
+                generator.writeNumberField("count", count);
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+        };
+    }
+    
+    /**
+     * One page of a user's archived bookings (older than the archive horizon),
+     * newest first, with the same cursor scheme as the live listings.
+     */
+    @Transactional(readOnly = true)
+    public BookingPage getArchivedBookings(String userId, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        Cursor after = Cursor.decode(cursor);
+        List<ArchivedBooking> rows = archivedBookingRepository.findPageByUserId(
+                userId, after.date(), after.id(), Limit.of(pageSize + 1));
+        Map<Long, BookingSeries> series = seriesById(rows.stream().map(ArchivedBooking::getSeriesId).toList());
+        List<BookingResponse> bookings = rows.stream()
+                .limit(pageSize)
+                .map(row -> {
+                    BookingResponse response = BookingResponse.fromArchived(row);
+                    BookingSeries rowSeries = row.getSeriesId() != null ? series.get(row.getSeriesId()) : null;
+                    return rowSeries != null ? response.withSeries(rowSeries) : response;
+                })
+                .toList();
+        if (rows.size() <= pageSize) {
+            return new BookingPage(bookings, null);
         }
+        ArchivedBooking last = rows.get(pageSize - 1);
+        return new BookingPage(bookings, new Cursor(last.getDate(), last.getId()).encode());
     }
     
+    /**
+     * Look a booking up by its numeric id, or by the string id it had before
+     * numeric ids (or that the client gave it), so links handed out earlier
+     * keep working.
+     */
     public Optional<Booking> getBookingById(String bookingId) {
-        return bookingRepository.findById(bookingId);
+        try {
+            return bookingRepository.findById(Long.valueOf(bookingId));
+        } catch (NumberFormatException e) {
+            return bookingRepository.findFirstByExternalIdOrderByStatusAscIdDesc(bookingId);
+        }
     }
     
+    /**
+     * Dates of a series within [from, to], expanded from its rule, each with
+     * the live booking that holds it. An occurrence that has been moved to the
+     * archive has no live booking.
+     */
+    @Transactional(readOnly = true)
+    public SeriesWindow getSeriesOccurrences(Long seriesId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxSeriesWindowDays) {
+            throw new IllegalArgumentException("Window must not exceed " + maxSeriesWindowDays + " days");
+        }
+        BookingSeries series = bookingSeriesRepository.findWithCustomDatesById(seriesId)
+                .orElseThrow(() -> new IllegalArgumentException("Series not found"));
+        
+        Map<LocalDate, Booking> bookingsByDate = new HashMap<>();
+        for (Booking booking : bookingRepository.findBySeriesIdAndDateBetweenOrderByDate(seriesId, from, to)) {
+            bookingsByDate.put(booking.getDate(), booking);
+        }
+        List<SeriesOccurrence> occurrences = series.occurrencesBetween(from, to).stream()
+                .map(date -> {
+                    Booking booking = bookingsByDate.get(date);
+                    return booking != null
+                            ? new SeriesOccurrence(date, String.valueOf(booking.getId()), booking.getStatus().getValue())
+                            : new SeriesOccurrence(date, null, null);
+                })
+                .toList();
+        return new SeriesWindow(series, occurrences);
+    }
+    
+    @Transactional
     public Booking cancelBooking(String bookingId, String userId) {
-        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
+        Optional<Booking> bookingOpt = getBookingById(bookingId);
         if (bookingOpt.isEmpty()) {
             throw new IllegalArgumentException("Booking not found");
         }
@@ -102,8 +584,10 @@ public class BookingService {
             throw new IllegalStateException("Not authorized to cancel this booking");
         }
         
-        booking.setStatus("cancelled");
-        return bookingRepository.save(booking);
+        booking.setStatus(Booking.Status.CANCELLED);
+        Booking cancelled = bookingRepository.save(booking);
+        afterCommit(() -> eventPublisher.publishEvent(BookingChangedEvent.cancelled(cancelled)));
+        return cancelled;
     }
     
     public boolean hasBookingConflict(LocalDate date, LocalTime startTime, LocalTime endTime, 
@@ -111,16 +595,16 @@ public class BookingService {
         log.debug("Checking booking conflict for date: {}, startTime: {}, endTime: {}, bookType: {}, subType: {}", 
                  date, startTime, endTime, bookType, subType);
         
-        // Simple approach: just check if there's any booking on the same date and seat
-        int bookingCount = bookingRepository.countBookingsForDateAndSeat(date, bookType.name(), subType);
-        boolean hasConflict = bookingCount > 0;
-        log.debug("Booking count: {}, has conflict: {}", bookingCount, hasConflict);
+        // Only bookings whose time slot overlaps [startTime, endTime) conflict
+        boolean hasConflict = !conflictIndex.findConflictingDates(bookType, subType, List.of(date), startTime, endTime).isEmpty();
+        log.debug("Has conflict: {}", hasConflict);
         return hasConflict;
     }
     
-    public List<Booking> getBookingsByLocation(String officeLocation, String building, String floor, LocalDate date) {
-        return bookingRepository.findByOfficeLocationAndBuildingAndFloorAndDate(
-                officeLocation, building, floor, date);
+    public BookingPage getBookingsByLocation(String officeLocation, String building, String floor, LocalDate date,
+                                             String cursor, int limit) {
+        return page((afterDate, afterId, pageLimit) -> bookingRepository.findPageByLocation(
+                officeLocation, building, floor, date, afterDate, afterId, pageLimit), cursor, limit);
     }
     
     public List<Booking> getBookingsByDateRange(LocalDate startDate, LocalDate endDate) {
@@ -131,6 +615,11 @@ public class BookingService {
         return bookingRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, startDate, endDate);
     }
     
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getBookingResponsesByUserAndDateRange(String userId, LocalDate startDate, LocalDate endDate) {
+        return toResponses(bookingRepository.findByUserIdAndDateBetweenOrderByDate(userId, startDate, endDate));
+    }
+    
     public List<Booking> getActiveBookingsBySeatAndDate(String seatId, LocalDate date) {
         return bookingRepository.findActiveBookingsBySeatAndDate(seatId, date);
     }
@@ -140,62 +629,149 @@ public class BookingService {
         return bookingCount > 0;
     }
     
-    private List<LocalDate> generateBookingDates(BookingRequest request) {
-        List<LocalDate> bookingDates = new ArrayList<>();
+    private PageQuery listingQuery(String userId, String seatId, String date, String status) {
+        if (userId != null) {
+            return (afterDate, afterId, limit) -> bookingRepository.findPageByUserId(userId, afterDate, afterId, limit);
+        } else if (seatId != null) {
+            return (afterDate, afterId, limit) -> bookingRepository.findPageBySubType(seatId, afterDate, afterId, limit);
+        } else if (date != null) {
+            LocalDate bookingDate = LocalDate.parse(date);
+            return (afterDate, afterId, limit) -> bookingRepository.findPageByDate(bookingDate, afterDate, afterId, limit);
+        } else if (status != null) {
+            Booking.Status bookingStatus = Booking.Status.fromValue(status);
+            return (afterDate, afterId, limit) -> bookingRepository.findPageByStatus(bookingStatus, afterDate, afterId, limit);
+        } else {
+            return bookingRepository::findPage;
+        }
+    }
+    
+    private BookingPage page(PageQuery query, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        Cursor after = Cursor.decode(cursor);
+        // One extra row tells whether another page follows
+        List<Booking> rows = query.find(after.date(), after.id(), Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new BookingPage(toResponses(rows), null);
+        }
+        List<Booking> bookings = rows.subList(0, pageSize);
+        return new BookingPage(toResponses(bookings), Cursor.after(bookings.get(pageSize - 1)).encode());
+    }
+    
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+    
+    public BookingResponse toResponse(Booking booking) {
+        return toResponses(List.of(booking)).get(0);
+    }
+    
+    /**
+     * Responses for a page of bookings. The recurrence rules of the page's
+     * series, and the custom dates of bookings outside a series, are each read
+     * in one query instead of initializing lazy collections per booking.
+     */
+    public List<BookingResponse> toResponses(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookingSeries> series = seriesById(bookings.stream().map(Booking::getSeriesId).toList());
+        
+        // Only bookings made before series were stored on their own can carry custom dates
+        Map<Long, List<LocalDate>> customDates = new HashMap<>();
+        List<Long> bookingIds = bookings.stream()
+                .filter(booking -> booking.getSeriesId() == null)
+                .map(Booking::getId)
+                .toList();
+        if (!bookingIds.isEmpty()) {
+            for (BookingCustomDateView row : bookingRepository.findCustomDatesByBookingIds(bookingIds)) {
+                customDates.computeIfAbsent(row.getBookingId(), id -> new ArrayList<>()).add(row.getCustomDate());
+            }
+        }
+        return bookings.stream()
+                .map(booking -> {
+                    BookingSeries bookingSeries = booking.getSeriesId() != null ? series.get(booking.getSeriesId()) : null;
+                    return bookingSeries != null
+                            ? BookingResponse.fromEntity(booking, List.of()).withSeries(bookingSeries)
+                            : BookingResponse.fromEntity(booking, customDates.getOrDefault(booking.getId(), List.of()));
+                })
+                .toList();
+    }
+    
+    private Map<Long, BookingSeries> seriesById(List<Long> seriesIds) {
+        List<Long> ids = seriesIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, BookingSeries> series = new HashMap<>();
+        for (BookingSeries row : bookingSeriesRepository.findAllWithCustomDatesByIdIn(ids)) {
+            series.put(row.getId(), row);
+        }
+        return series;
+    }
+    
+    // In-memory indexes must only see committed bookings
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    /**
+     * The recurrence rule of a request, or null for a single booking.
+     */
+    private BookingSeries seriesOf(BookingRequest request, LocalTime startTime, LocalTime endTime, String userId) {
+        BookingRequest.RecurrenceRequest recurrence = request.getRecurrence();
+        if (recurrence == null || recurrence.getType() == null || recurrence.getType() == RecurrenceType.NONE) {
+            return null;
+        }
         LocalDate startDate = LocalDate.parse(request.getDate());
         
+        BookingSeries series = new BookingSeries();
+        series.setRecurrenceType(recurrence.getType());
+        series.setStartDate(startDate);
+        
         // Validate recurrence for DAILY and WEEKLY
-        if (request.getRecurrence() != null &&
-                (request.getRecurrence().getType() == RecurrenceType.DAILY || 
-                 request.getRecurrence().getType() == RecurrenceType.WEEKLY)) {
-
-            if (request.getRecurrence().getEndDate() == null) {
-                throw new IllegalArgumentException("endDate is required for recurrence type " + request.getRecurrence().getType());
+        if (recurrence.getType() == RecurrenceType.DAILY || recurrence.getType() == RecurrenceType.WEEKLY) {
+            if (recurrence.getEndDate() == null) {
+                throw new IllegalArgumentException("endDate is required for recurrence type " + recurrence.getType());
             }
-
-            LocalDate end = LocalDate.parse(request.getRecurrence().getEndDate());
+            LocalDate end = LocalDate.parse(recurrence.getEndDate());
             if (end.isBefore(startDate)) {
                 throw new IllegalArgumentException("endDate must be after start date");
             }
-        }
-        
-        // Generate booking dates based on recurrence
-        if (request.getRecurrence() == null || request.getRecurrence().getType() == RecurrenceType.NONE) {
-            bookingDates.add(startDate);
-        } else {
-            switch (request.getRecurrence().getType()) {
-                case DAILY -> {
-                    LocalDate end = LocalDate.parse(request.getRecurrence().getEndDate());
-                    for (LocalDate d = startDate; !d.isAfter(end); d = d.plusDays(1)) {
-                        bookingDates.add(d);
-                    }
-                }
-                case WEEKLY -> {
-                    LocalDate end = LocalDate.parse(request.getRecurrence().getEndDate());
-                    for (LocalDate d = startDate; !d.isAfter(end); d = d.plusWeeks(1)) {
-                        bookingDates.add(d);
-                    }
-                }
-                case CUSTOM -> {
-                    if (request.getRecurrence().getCustomDates() == null || request.getRecurrence().getCustomDates().isEmpty()) {
-                        throw new IllegalArgumentException("Custom dates required for recurrence type CUSTOM");
-                    }
-                    for (String dateStr : request.getRecurrence().getCustomDates()) {
-                        bookingDates.add(LocalDate.parse(dateStr));
-                    }
-                }
+            series.setEndDate(end);
+        } else if (recurrence.getType() == RecurrenceType.CUSTOM) {
+            if (recurrence.getCustomDates() == null || recurrence.getCustomDates().isEmpty()) {
+                throw new IllegalArgumentException("Custom dates required for recurrence type CUSTOM");
             }
+            List<LocalDate> customDates = recurrence.getCustomDates().stream().map(LocalDate::parse).toList();
+            series.setCustomDates(new ArrayList<>(customDates));
+            // Custom dates are booked as given, including any before the request's date
+            series.setStartDate(customDates.stream().min(LocalDate::compareTo).orElseThrow());
         }
         
-        return bookingDates;
+        series.setStartTime(startTime);
+        series.setEndTime(endTime);
+        series.setBookType(request.getBookType());
+        series.setSubType(request.getSubType());
+        series.setOfficeLocation(request.getOfficeLocation());
+        series.setBuilding(request.getBuilding());
+        series.setFloor(request.getFloor());
+        series.setUserId(userId);
+        series.setNotes(request.getNotes());
+        return series;
     }
     
     private Booking createBookingEntity(BookingRequest request, LocalDate date, LocalTime startTime, 
-                                      LocalTime endTime, String userId) {
-        String bookingId = request.getId() != null ? request.getId() + "_" + date : UUID.randomUUID().toString() + "_" + date;
-        
+                                      LocalTime endTime, String userId, Long seriesId) {
         Booking booking = new Booking(
-                bookingId,
                 date,
                 startTime,
                 endTime,
@@ -204,18 +780,130 @@ public class BookingService {
                 request.getOfficeLocation(),
                 request.getBuilding(),
                 request.getFloor(),
-                request.getRecurrence() != null ? request.getRecurrence().getType() : RecurrenceType.NONE,
-                request.getRecurrence() != null && request.getRecurrence().getEndDate() != null
-                        ? LocalDate.parse(request.getRecurrence().getEndDate()) : null,
-                request.getRecurrence() != null && request.getRecurrence().getCustomDates() != null
-                        ? request.getRecurrence().getCustomDates().stream().map(LocalDate::parse).toList()
-                        : null,
-                "confirmed"
+                // The rule of an occurrence lives on its series
+                seriesId != null ? null : RecurrenceType.NONE,
+                null,
+                null,
+                Booking.Status.CONFIRMED
         );
         
         booking.setUserId(userId);
         booking.setNotes(request.getNotes());
+        booking.setSeriesId(seriesId);
+        if (request.getId() != null) {
+            booking.setExternalId(externalIdOf(request, date));
+        }
         
         return booking;
     }
-} 
\ No newline at end of file
+
+    /**
+     * A page of booking responses and the opaque cursor of the next page, or null when
+     * this is the last one.
+     */
+    public record BookingPage(List<BookingResponse> bookings, String nextCursor) {
+    }
+    
+    /**
+     * A series and its occurrences within the requested window.
+     */
+    public record SeriesWindow(BookingSeries series, List<SeriesOccurrence> occurrences) {
+    }
+    
+    // Booking id and status are null when the occurrence has no live booking
+    public record SeriesOccurrence(LocalDate date, String bookingId, String status) {
+    }
+    
+    /**
+     * Outcome of a bulk booking: one result per requested item, in order.
+     * Nothing was written unless {@code committed} is true.
+     */
+    public record BulkBookingResult(boolean committed, List<BulkItemResult> items) {
+        
+        static BulkBookingResult rejected(List<BulkItemResult> results) {
+            // Items that were fine on their own were not booked because of the others
+            List<BulkItemResult> items = new ArrayList<>(results.size());
+            for (int index = 0; index < results.size(); index++) {
+                items.add(results.get(index) != null ? results.get(index) : BulkItemResult.notBooked(index));
+            }
+            return new BulkBookingResult(false, items);
+        }
+    }
+    
+    // status is booked, conflict, invalid, or not_booked when another item failed
+    public record BulkItemResult(int index, String status, String message,
+                                 List<String> conflictDates, List<BookingResponse> bookings) {
+        
+        static BulkItemResult booked(int index, List<BookingResponse> bookings) {
+            return new BulkItemResult(index, "booked", null, List.of(), bookings);
+        }
+        
+        static BulkItemResult conflict(int index, List<LocalDate> dates) {
+            return new BulkItemResult(index, "conflict", "Item already booked on " + dates.get(0),
+                    dates.stream().map(LocalDate::toString).toList(), List.of());
+        }
+        
+        static BulkItemResult invalid(int index, String message) {
+            return new BulkItemResult(index, "invalid", message, List.of(), List.of());
+        }
+        
+        static BulkItemResult notBooked(int index) {
+            return new BulkItemResult(index, "not_booked", "Not booked because other items failed", List.of(), List.of());
+        }
+    }
+    
+    private record BulkItem(int index, BookingRequest request, BookingSeries series, List<LocalDate> dates,
+                            LocalTime startTime, LocalTime endTime) {
+        
+        SeatDay seatDay(LocalDate date) {
+            return new SeatDay(request.getBookType(), request.getSubType(), date);
+        }
+        
+        // Same half-open overlap as the conflict queries
+        boolean overlaps(LocalTime otherStart, LocalTime otherEnd) {
+            return otherEnd.isAfter(startTime) && otherStart.isBefore(endTime);
+        }
+    }
+    
+    private record Seat(BookType bookType, String subType) {
+    }
+    
+    private record SeatDay(BookType bookType, String subType, LocalDate date) {
+    }
+    
+    @FunctionalInterface
+    private interface PageQuery {
+        List<Booking> find(LocalDate afterDate, Long afterId, Limit limit);
+    }
+    
+    private record StreamedPage(List<BookingResponse> bookings, Cursor last) {
+    }
+    
+    // Position after the last row of a page; sent to clients as URL-safe base64 of "date|id"
+    private record Cursor(LocalDate date, Long id) {
+        
+        static final Cursor FIRST_PAGE = new Cursor(BookingRepository.FIRST_PAGE_DATE, BookingRepository.FIRST_PAGE_ID);
+        
+        static Cursor after(Booking booking) {
+            return new Cursor(booking.getDate(), booking.getId());
+        }
+        
+        static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return FIRST_PAGE;
+            }
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('|');
+                return new Cursor(LocalDate.parse(decoded.substring(0, separator)), Long.valueOf(decoded.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((date + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -2,26 +2,34 @@ package com.example.ResourceReserve.service;
 
 import com.example.ResourceReserve.entity.DynamicFloorPlanTable;
 import com.example.ResourceReserve.repository.DynamicFloorPlanRepository;
-import com.example.ResourceReserve.repository.BookingRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.List;
-
-import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class DynamicFloorPlanService {
@@ -32,19 +40,31 @@ public class DynamicFloorPlanService {
     private DynamicFloorPlanRepository repository;
     
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private SeatOccupancyService seatOccupancyService;
     
     @Autowired
-    private DataSource dataSource;
+    private LegacyFloorPlanMigrator legacyFloorPlanMigrator;
     
-    @Autowired
-    private BookingRepository bookingRepository;
+    @Value("${floorplan.template-cache.max-size:500}")
+    private long templateCacheMaxSize;
     
     private final ObjectMapper objectMapper = new ObjectMapper();
     
+    // Parsed plans keyed by floor; empty values remember floors without a plan
+    private Cache<FloorPlanKey, Optional<FloorPlanTemplate>> templateCache;
+    
+    @PostConstruct
+    void initTemplateCache() {
+        templateCache = Caffeine.newBuilder()
+                .maximumSize(templateCacheMaxSize)
+                .build();
+    }
+    
     /**
      * Generate table name based on office location, building name, and floor ID
-     * Removes spaces and special characters to ensure valid SQL table names
+     * Removes spaces and special characters to ensure valid SQL table names.
+     * Plans are now stored in dynamic_floor_plan_table; this name identifies the
+     * floor's legacy per-floor table and is still reported to clients.
      */
     public String generateTableName(String officeLocation, String buildingName, String floorId) {
         // Remove spaces and replace with underscores, also remove other special characters
@@ -61,157 +81,212 @@ public class DynamicFloorPlanService {
     }
     
     /**
-     * Create a new dynamic table if it doesn't exist
+     * Insert or update floor plan data in the floor plan store
      */
     @Transactional
-    public void createTableIfNotExists(String officeLocation, String buildingName, String floorId) {
-        String tableName = generateTableName(officeLocation, buildingName, floorId);
+    public void saveFloorPlanData(String officeLocation, String buildingName, String floorId, String planJson) {
+        invalidateFloorPlanTemplate(officeLocation, buildingName, floorId);
         
-        String createTableSQL = String.format(
-            "IF NOT EXISTS (SELECT * FROM sysobjects WHERE name='%s' AND xtype='U') " +
-            "CREATE TABLE %s (" +
-            "id UNIQUEIDENTIFIER PRIMARY KEY DEFAULT NEWID(), " +
-            "building_name NVARCHAR(255) NOT NULL, " +
-            "office_location NVARCHAR(255) NOT NULL, " +
-            "floor_id NVARCHAR(255) NOT NULL, " +
-            "plan_json NVARCHAR(MAX) NOT NULL, " +
-            "updated_at DATETIME DEFAULT GETDATE()" +
-            ")", tableName, tableName);
+        Optional<DynamicFloorPlanTable> existing =
+            repository.findByOfficeLocationAndBuildingNameAndFloorId(officeLocation, buildingName, floorId);
         
-        try {
-            jdbcTemplate.execute(createTableSQL);
-            logger.info("Table {} created successfully or already exists", tableName);
-        } catch (Exception e) {
-            logger.error("Error creating table {}: {}", tableName, e.getMessage());
-            throw new RuntimeException("Failed to create table: " + tableName, e);
+        if (existing.isPresent()) {
+            // Update existing record
+            DynamicFloorPlanTable floorPlan = existing.get();
+            floorPlan.setPlanJson(planJson);
+            floorPlan.setUpdatedAt(LocalDateTime.now());
+            repository.save(floorPlan);
+            logger.info("Updated floor plan data for: {}/{}/{}", officeLocation, buildingName, floorId);
+        } else {
+            // Insert new record
+            repository.save(new DynamicFloorPlanTable(buildingName, officeLocation, floorId, planJson));
+            logger.info("Inserted new floor plan data for: {}/{}/{}", officeLocation, buildingName, floorId);
         }
     }
     
     /**
-     * Insert or update floor plan data in the dynamic table
+     * Stream the floor plan with booking status for a specific date, inside
+     * the usual ApiResponse envelope. plan_json is still a JSON string: the
+     * plan is escaped into it as it is generated, so neither the plan nor the
+     * response is built in memory first.
      */
-    @Transactional
-    public void saveFloorPlanData(String officeLocation, String buildingName, String floorId, String planJson) {
-        // First, ensure the table exists
-        createTableIfNotExists(officeLocation, buildingName, floorId);
-        
-        String tableName = generateTableName(officeLocation, buildingName, floorId);
-        
-        // Check if data already exists
-        String checkSQL = String.format(
-            "SELECT COUNT(*) FROM %s WHERE office_location = ? AND building_name = ? AND floor_id = ?",
-            tableName);
-        
-        int count = jdbcTemplate.queryForObject(checkSQL, Integer.class, officeLocation, buildingName, floorId);
-        
-        if (count > 0) {
-            // Update existing record
-            String updateSQL = String.format(
-                "UPDATE %s SET plan_json = ?, updated_at = GETDATE() " +
-                "WHERE office_location = ? AND building_name = ? AND floor_id = ?",
-                tableName);
-            
-            jdbcTemplate.update(updateSQL, planJson, officeLocation, buildingName, floorId);
-            logger.info("Updated floor plan data for table: {}", tableName);
-        } else {
-            // Insert new record
-            String insertSQL = String.format(
-                "INSERT INTO %s (building_name, office_location, floor_id, plan_json) " +
-                "VALUES (?, ?, ?, ?)",
-                tableName);
-            
-            jdbcTemplate.update(insertSQL, buildingName, officeLocation, floorId, planJson);
-            logger.info("Inserted new floor plan data for table: {}", tableName);
+    public Optional<StreamingResponseBody> streamFloorPlanData(String officeLocation, String buildingName, String floorId,
+                                                               LocalDate date, String version) {
+        Optional<FloorPlanTemplate> template = getFloorPlanTemplate(officeLocation, buildingName, floorId);
+        if (template.isEmpty()) {
+            return Optional.empty();
         }
+        SeatOccupancyService.FloorOccupancy occupancy = findOccupancy(template.get(), officeLocation, buildingName, floorId, date);
+        String tableName = generateTableName(officeLocation, buildingName, floorId);
+        return Optional.of(out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+                // Flushes only move the generator's buffer into the writer, not out to the client
+                generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", "Floor plan data retrieved successfully");
+                generator.writeObjectFieldStart("data");
+                generator.writeStringField("office_location", officeLocation);
+                generator.writeStringField("building_name", buildingName);
+                generator.writeStringField("floor_id", floorId);
+                generator.writeStringField("date", date.toString());
+                generator.writeFieldName("plan_json");
+                writePlanJsonString(generator, writer, template.get(), occupancy);
+                generator.writeStringField("version", version);
+                generator.writeStringField("table_name", tableName);
+                generator.writeEndObject();
+                generator.writeNullField("error");
+                generator.writeNullField("code");
+                generator.writeEndObject();
+            }
+        });
     }
     
     /**
-     * Retrieve floor plan data from the dynamic table
+     * Parsed floor plan template, served from the template cache. Only a cache
+     * miss reads and parses plan_json from the floor plan store.
      */
-    public Optional<String> getFloorPlanData(String officeLocation, String buildingName, String floorId) {
-        return getFloorPlanData(officeLocation, buildingName, floorId, LocalDate.now());
+    public Optional<FloorPlanTemplate> getFloorPlanTemplate(String officeLocation, String buildingName, String floorId) {
+        return templateCache.get(new FloorPlanKey(officeLocation, buildingName, floorId), this::loadFloorPlanTemplate);
     }
     
     /**
-     * Retrieve floor plan data from the dynamic table with booking status for a specific date
+     * Version of the floor plan as served for the given date: the plan's
+     * content hash plus the version of that day's booking overlay. Used as the
+     * ETag of plan responses; it is read before the plan so a response is
+     * never tagged newer than its content.
      */
-    public Optional<String> getFloorPlanData(String officeLocation, String buildingName, String floorId, LocalDate date) {
-        String tableName = generateTableName(officeLocation, buildingName, floorId);
-        
-        // Check if table exists
-        String tableExistsSQL = 
-            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = ?";
-        
-        int tableCount = jdbcTemplate.queryForObject(tableExistsSQL, Integer.class, tableName);
+    public Optional<String> getFloorPlanVersion(String officeLocation, String buildingName, String floorId, LocalDate date) {
+        return getFloorPlanTemplate(officeLocation, buildingName, floorId)
+                .map(template -> template.getContentHash() + ":"
+                        + seatOccupancyService.getOccupancy(officeLocation, buildingName, floorId, date).version());
+    }
+    
+    private Optional<FloorPlanTemplate> loadFloorPlanTemplate(FloorPlanKey key) {
+        Optional<DynamicFloorPlanTable> stored =
+            repository.findByOfficeLocationAndBuildingNameAndFloorId(key.officeLocation(), key.buildingName(), key.floorId());
+        String planJson = stored.map(DynamicFloorPlanTable::getPlanJson).orElseGet(() -> findLegacyPlanJson(key));
         
-        if (tableCount == 0) {
-            logger.warn("Table {} does not exist", tableName);
+        if (planJson == null) {
+            logger.warn("No floor plan found for: {}/{}/{}", key.officeLocation(), key.buildingName(), key.floorId());
             return Optional.empty();
         }
         
-        // Retrieve data without WHERE conditions
-        String selectSQL = String.format(
-            "SELECT plan_json FROM %s",
-            tableName);
-        
+        FloorPlanTemplate template = FloorPlanTemplate.parse(planJson,
+            stored.map(DynamicFloorPlanTable::getPlanHash).orElse(null), objectMapper);
+        if (template.getPlanNode() == null) {
+            logger.error("Stored floor plan JSON for {}/{}/{} could not be parsed",
+                key.officeLocation(), key.buildingName(), key.floorId());
+        }
+        return Optional.of(template);
+    }
+    
+    // Plans not copied over yet are read from their legacy table until the migration has completed
+    private String findLegacyPlanJson(FloorPlanKey key) {
+        if (legacyFloorPlanMigrator.isComplete()) {
+            return null;
+        }
+        return legacyFloorPlanMigrator.findLegacyPlanJson(
+            generateTableName(key.officeLocation(), key.buildingName(), key.floorId()));
+    }
+    
+    private void invalidateFloorPlanTemplate(String officeLocation, String buildingName, String floorId) {
+        FloorPlanKey key = new FloorPlanKey(officeLocation, buildingName, floorId);
+        templateCache.invalidate(key);
+        // Invalidate again once committed so a concurrent reader cannot re-cache the old plan
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    templateCache.invalidate(key);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Occupied seats for this location and date, or null to send the stored
+     * plan unchanged (it could not be parsed, or the bookings could not be read)
+     */
+    private SeatOccupancyService.FloorOccupancy findOccupancy(FloorPlanTemplate template, String officeLocation,
+                                                              String buildingName, String floorId, LocalDate date) {
+        if (template.getPlanNode() == null) {
+            return null;
+        }
         try {
-            String planJson = jdbcTemplate.queryForObject(selectSQL, String.class);
-            if (planJson != null) {
-                // Update seat status based on bookings
-                String updatedPlanJson = updateSeatStatusWithBookings(planJson, officeLocation, buildingName, floorId, date);
-                return Optional.of(updatedPlanJson);
-            }
-            return Optional.empty();
+            SeatOccupancyService.FloorOccupancy occupancy =
+                seatOccupancyService.getOccupancy(officeLocation, buildingName, floorId, date);
+            logger.info("Found {} booked seats for date {}", occupancy.occupiedSeats().size(), date);
+            return occupancy;
         } catch (Exception e) {
-            logger.warn("No data found for table {}", tableName);
-            return Optional.empty();
+            logger.error("Error updating seat status with bookings: {}", e.getMessage(), e);
+            return null;
         }
     }
     
     /**
-     * Update seat status in floor plan JSON based on booking data
+     * Write the plan as a JSON string value. The opening quote is written as
+     * the value itself, then the shared template is serialized once, with
+     * seat status substituted, through a writer that escapes it on the way out.
      */
-    private String updateSeatStatusWithBookings(String planJson, String officeLocation, String buildingName, String floorId, LocalDate date) {
-        try {
-            JsonNode planNode = objectMapper.readTree(planJson);
-            
-            // Get all active bookings for this location and date
-            List<String> bookedSeats = bookingRepository.findByOfficeLocationAndBuildingAndFloorAndDate(
-                officeLocation, buildingName, floorId, date
-            ).stream()
-            .filter(booking -> "confirmed".equals(booking.getStatus()))
-            .map(booking -> booking.getSubType())
-            .toList();
-            
-            logger.info("Found {} booked seats for date {}: {}", bookedSeats.size(), date, bookedSeats);
+    private void writePlanJsonString(JsonGenerator generator, Writer writer, FloorPlanTemplate template,
+                                     SeatOccupancyService.FloorOccupancy occupancy) throws IOException {
+        generator.writeRawValue("\"");
+        generator.flush();
+        Writer escaped = new JsonStringContentWriter(writer);
+        if (occupancy == null) {
+            escaped.write(template.getPlanJson());
+        } else {
+            try (JsonGenerator plan = objectMapper.getFactory().createGenerator(escaped)) {
+                writeWithSeatStatus(plan, template.getPlanNode(), occupancy);
+            }
+        }
+        generator.writeRaw('"');
+    }
+    
+
+    private void writeWithSeatStatus(JsonGenerator generator, JsonNode planNode,
+                                     SeatOccupancyService.FloorOccupancy occupancy) throws IOException {
+        if (!planNode.has("seats") || !planNode.get("seats").isArray()) {
+            generator.writeTree(planNode);
+            return;
+        }
+        
+        generator.writeStartObject();
+        for (Map.Entry<String, JsonNode> field : planNode.properties()) {
+            generator.writeFieldName(field.getKey());
+            if (!"seats".equals(field.getKey())) {
+                generator.writeTree(field.getValue());
+                continue;
+            }
             
-            // Update seats in the JSON
-            if (planNode.has("seats") && planNode.get("seats").isArray()) {
-                ArrayNode seatsArray = (ArrayNode) planNode.get("seats");
+            generator.writeStartArray();
+            for (JsonNode seatNode : field.getValue()) {
+                if (!seatNode.has("id")) {
+                    generator.writeTree(seatNode);
+                    continue;
+                }
                 
-                for (JsonNode seatNode : seatsArray) {
-                    if (seatNode.has("id")) {
-                        String seatId = seatNode.get("id").asText();
-                        
-                        // Check if this seat is booked
-                        if (bookedSeats.contains(seatId)) {
-                            ((ObjectNode) seatNode).put("status", "occupied");
-                            logger.debug("Marked seat {} as occupied", seatId);
-                        } else {
-                            // Ensure status is set to available if not booked
-                            ((ObjectNode) seatNode).put("status", "available");
-                        }
+                // Booked seats are occupied, every other seat is available
+                String status = occupancy.isOccupied(seatNode.get("id").asText()) ? "occupied" : "available";
+                generator.writeStartObject();
+                for (Map.Entry<String, JsonNode> seatField : seatNode.properties()) {
+                    if ("status".equals(seatField.getKey())) {
+                        generator.writeStringField("status", status);
+                    } else {
+                        generator.writeFieldName(seatField.getKey());
+                        generator.writeTree(seatField.getValue());
                     }
                 }
+                if (!seatNode.has("status")) {
+                    generator.writeStringField("status", status);
+                }
+                generator.writeEndObject();
             }
-            
-            return objectMapper.writeValueAsString(planNode);
-            
-        } catch (Exception e) {
-            logger.error("Error updating seat status with bookings: {}", e.getMessage(), e);
-            // Return original JSON if there's an error
-            return planJson;
+            generator.writeEndArray();
         }
+        generator.writeEndObject();
     }
     
     /**
@@ -239,61 +314,71 @@ public class DynamicFloorPlanService {
      * Check if a specific floor plan exists
      */
     public boolean floorPlanExists(String officeLocation, String buildingName, String floorId) {
-        String tableName = generateTableName(officeLocation, buildingName, floorId);
-        
-        // Check if table exists
-        String tableExistsSQL = 
-            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = ?";
-        
-        int tableCount = jdbcTemplate.queryForObject(tableExistsSQL, Integer.class, tableName);
-        
-        if (tableCount == 0) {
-            return false;
+        if (repository.existsByOfficeLocationAndBuildingNameAndFloorId(officeLocation, buildingName, floorId)) {
+            return true;
         }
-        
-        // Check if data exists
-        String dataExistsSQL = String.format(
-            "SELECT COUNT(*) FROM %s WHERE office_location = ? AND building_name = ? AND floor_id = ?",
-            tableName);
-        
-        int dataCount = jdbcTemplate.queryForObject(dataExistsSQL, Integer.class, officeLocation, buildingName, floorId);
-        return dataCount > 0;
+        return findLegacyPlanJson(new FloorPlanKey(officeLocation, buildingName, floorId)) != null;
     }
     
     /**
-     * Delete a floor plan table and its data
+     * Delete a floor plan, including its legacy per-floor table if one is left
      */
     @Transactional
     public void deleteFloorPlanTable(String officeLocation, String buildingName, String floorId) {
-        String tableName = generateTableName(officeLocation, buildingName, floorId);
+        invalidateFloorPlanTemplate(officeLocation, buildingName, floorId);
         
-        String dropTableSQL = String.format("DROP TABLE IF EXISTS %s", tableName);
+        String tableName = generateTableName(officeLocation, buildingName, floorId);
         
         try {
-            jdbcTemplate.execute(dropTableSQL);
-            logger.info("Table {} dropped successfully", tableName);
+            repository.deleteByOfficeLocationAndBuildingNameAndFloorId(officeLocation, buildingName, floorId);
+            legacyFloorPlanMigrator.dropLegacyTable(tableName);
+            logger.info("Floor plan {}/{}/{} deleted successfully", officeLocation, buildingName, floorId);
         } catch (Exception e) {
-            logger.error("Error dropping table {}: {}", tableName, e.getMessage());
-            throw new RuntimeException("Failed to drop table: " + tableName, e);
+            logger.error("Error deleting floor plan {}/{}/{}: {}", officeLocation, buildingName, floorId, e.getMessage());
+            throw new RuntimeException("Failed to delete floor plan: " + tableName, e);
         }
     }
     
     /**
-     * Get table metadata for a specific table
+     * Get stored record metadata for a specific floor plan
      */
     public Map<String, Object> getTableMetadata(String officeLocation, String buildingName, String floorId) {
-        String tableName = generateTableName(officeLocation, buildingName, floorId);
+        Optional<DynamicFloorPlanTable> floorPlan =
+            repository.findByOfficeLocationAndBuildingNameAndFloorId(officeLocation, buildingName, floorId);
         
-        String metadataSQL = String.format(
-            "SELECT COUNT(*) as record_count, MAX(updated_at) as last_updated " +
-            "FROM %s WHERE office_location = ? AND building_name = ? AND floor_id = ?",
-            tableName);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("record_count", floorPlan.isPresent() ? 1 : 0);
+        metadata.put("last_updated", floorPlan.map(DynamicFloorPlanTable::getUpdatedAt).orElse(null));
+        return metadata;
+    }
+    
+    /**
+     * Escapes what is written to it as the content of a JSON string. It holds
+     * no buffer of its own, and flushing or closing it leaves the response
+     * writer alone.
+     */
+    private static final class JsonStringContentWriter extends Writer {
         
-        try {
-            return jdbcTemplate.queryForMap(metadataSQL, officeLocation, buildingName, floorId);
-        } catch (Exception e) {
-            logger.warn("Could not retrieve metadata for table {}: {}", tableName, e.getMessage());
-            return Map.of("record_count", 0, "last_updated", null);
+        private final Writer target;
+        
+        JsonStringContentWriter(Writer target) {
+            this.target = target;
         }
+        
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            target.write(JsonStringEncoder.getInstance().quoteAsString(CharBuffer.wrap(chars, offset, length)));
+        }
+        
+        @Override
+        public void flush() {
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+    
+    private record FloorPlanKey(String officeLocation, String buildingName, String floorId) {
     }
-} 
\ No newline at end of file
+}
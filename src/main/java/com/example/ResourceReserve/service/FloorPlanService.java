@@ -1,146 +1,118 @@
 package com.example.ResourceReserve.service;
 
 import com.example.ResourceReserve.dto.FloorPlanResponse;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.IntFunction;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FloorPlanService {
     
+    private static final String DEFAULT_PLAN_VERSION = "default";
+    
     private final DynamicFloorPlanService dynamicFloorPlanService;
+    private final SeatOccupancyService seatOccupancyService;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
-    public FloorPlanResponse getFloorPlan(String building, String office, String floor, String date) {
+    /**
+     * Resolve the floor plan and booking status for the given date and return
+     * a body that streams the {@link FloorPlanResponse} JSON straight to the
+     * response. The cached template is written as-is with each seat's status
+     * merged in, so no per-request copy of the plan is built.
+     */
+    public StreamingResponseBody streamFloorPlan(String building, String office, String floor, String date) {
         log.info("Getting floor plan for building: {}, office: {}, floor: {}, date: {}", building, office, floor, date);
         
         try {
-            // Get floor plan data from dynamic table
-            Optional<String> planData;
-            if (date != null && !date.isEmpty()) {
-                LocalDate bookingDate = LocalDate.parse(date);
-                planData = dynamicFloorPlanService.getFloorPlanData(office, building, floor, bookingDate);
-            } else {
-                planData = dynamicFloorPlanService.getFloorPlanData(office, building, floor);
-            }
+            // Get the cached floor plan template
+            Optional<FloorPlanTemplate> template = dynamicFloorPlanService.getFloorPlanTemplate(office, building, floor);
             
-            if (planData.isPresent()) {
-                // Parse the JSON data and convert to FloorPlanResponse
-                return parseFloorPlanData(planData.get(), building, office, floor);
+            if (template.isPresent() && template.get().getPlan() != null) {
+                LocalDate bookingDate = date != null && !date.isEmpty() ? LocalDate.parse(date) : LocalDate.now();
+                SeatOccupancyService.FloorOccupancy occupancy =
+                        seatOccupancyService.getOccupancy(office, building, floor, bookingDate);
+                FloorPlanTemplate floorPlan = template.get();
+                log.info("Streaming floor plan with {} seats", floorPlan.getPlan().getSeats().size());
+                return out -> writeFloorPlan(out, floorPlan.getPlan(), index ->
+                        floorPlan.isBookableSeat(index) ? occupancy.isOccupied(floorPlan.getPlan().getSeats().get(index).getId()) : null);
             } else {
                 log.warn("No floor plan data found for: office={}, building={}, floor={}, date={}", office, building, floor, date);
-                return createDefaultFloorPlan();
             }
             
         } catch (Exception e) {
             log.error("Error getting floor plan: {}", e.getMessage(), e);
-            return createDefaultFloorPlan();
         }
+        
+        FloorPlanResponse defaultPlan = createDefaultFloorPlan();
+        return out -> writeFloorPlan(out, defaultPlan, index -> null);
     }
     
-    private FloorPlanResponse parseFloorPlanData(String planJson, String building, String office, String floor) {
+    /**
+     * ETag for {@link #streamFloorPlan}: the stored plan's version for the
+     * date, or a fixed tag when the default plan is served.
+     */
+    public String getFloorPlanVersion(String building, String office, String floor, String date) {
         try {
-            JsonNode rootNode = objectMapper.readTree(planJson);
-            
-            List<FloorPlanResponse.Seat> seats = new ArrayList<>();
-            List<FloorPlanResponse.DeskArea> deskAreas = new ArrayList<>();
-            
-            // Parse seats
-            if (rootNode.has("seats") && rootNode.get("seats").isArray()) {
-                for (JsonNode seatNode : rootNode.get("seats")) {
-                    FloorPlanResponse.Seat seat = FloorPlanResponse.Seat.builder()
-                            .id(seatNode.has("id") ? seatNode.get("id").asText() : UUID.randomUUID().toString())
-                            .x(seatNode.has("x") ? seatNode.get("x").asDouble() : 0.0)
-                            .y(seatNode.has("y") ? seatNode.get("y").asDouble() : 0.0)
-                            .status(seatNode.has("status") ? seatNode.get("status").asText() : "available")
-                            .type(seatNode.has("type") ? seatNode.get("type").asText() : "desk")
-                            .equipment(parseEquipmentFromJson(seatNode))
-                            .rotation(seatNode.has("rotation") ? seatNode.get("rotation").asInt() : 0)
-                            .build();
-                    seats.add(seat);
-                }
-            }
+            LocalDate bookingDate = date != null && !date.isEmpty() ? LocalDate.parse(date) : LocalDate.now();
+            return dynamicFloorPlanService.getFloorPlanVersion(office, building, floor, bookingDate)
+                    .orElse(DEFAULT_PLAN_VERSION);
+        } catch (Exception e) {
+            log.error("Error getting floor plan version: {}", e.getMessage(), e);
+            return DEFAULT_PLAN_VERSION;
+        }
+    }
+    
+    /**
+     * Write the plan as FloorPlanResponse JSON. occupiedAt returns, per seat
+     * position, whether the seat is booked, or null to keep the stored status.
+     */
+    private void writeFloorPlan(OutputStream out, FloorPlanResponse plan, IntFunction<Boolean> occupiedAt) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
             
-            // Parse desk areas
-            if (rootNode.has("deskAreas") && rootNode.get("deskAreas").isArray()) {
-                for (JsonNode areaNode : rootNode.get("deskAreas")) {
-                    FloorPlanResponse.DeskArea area = FloorPlanResponse.DeskArea.builder()
-                            .id(areaNode.has("id") ? areaNode.get("id").asText() : "area1")
-                            .name(areaNode.has("name") ? areaNode.get("name").asText() : "Main Workspace")
-                            .x(areaNode.has("x") ? areaNode.get("x").asDouble() : 1.6101207354199758)
-                            .y(areaNode.has("y") ? areaNode.get("y").asDouble() : 1.869158965001005)
-                            .width(areaNode.has("width") ? areaNode.get("width").asInt() : 60)
-                            .height(areaNode.has("height") ? areaNode.get("height").asInt() : 40)
-                            .type(areaNode.has("type") ? areaNode.get("type").asText() : "workspace")
-                            .rotation(areaNode.has("rotation") ? areaNode.get("rotation").asInt() : 0)
-                            .build();
-                    deskAreas.add(area);
+            generator.writeArrayFieldStart("seats");
+            List<FloorPlanResponse.Seat> seats = plan.getSeats();
+            for (int i = 0; i < seats.size(); i++) {
+                FloorPlanResponse.Seat seat = seats.get(i);
+                Boolean occupied = occupiedAt.apply(i);
+                generator.writeStartObject();
+                generator.writeStringField("id", seat.getId());
+                generator.writeNumberField("x", seat.getX());
+                generator.writeNumberField("y", seat.getY());
+                generator.writeStringField("status", occupied == null ? seat.getStatus() : occupied ? "occupied" : "available");
+                generator.writeStringField("type", seat.getType());
+                generator.writeArrayFieldStart("equipment");
+                if (seat.getEquipment() != null) {
+                    for (String item : seat.getEquipment()) {
+                        generator.writeString(item);
+                    }
                 }
+                generator.writeEndArray();
+                generator.writeNumberField("rotation", seat.getRotation());
+                generator.writeEndObject();
             }
+            generator.writeEndArray();
             
-            // Create default desk area if none found
-            if (deskAreas.isEmpty()) {
-                deskAreas.add(FloorPlanResponse.DeskArea.builder()
-                        .id("area1")
-                        .name("Main Workspace")
-                        .x(1.6101207354199758)
-                        .y(1.869158965001005)
-                        .width(60)
-                        .height(40)
-                        .type("workspace")
-                        .rotation(0)
-                        .build());
-            }
-            
-            // Create office layout
-            FloorPlanResponse.OfficeLayout officeLayout = FloorPlanResponse.OfficeLayout.builder()
-                    .x(0)
-                    .y(0)
-                    .width(210)
-                    .height(82)
-                    .fillColor("hsl(var(--muted))")
-                    .fillOpacity(0.1)
-                    .strokeColor("hsl(var(--border))")
-                    .strokeWidth(1)
-                    .build();
-            
-            log.info("Successfully parsed floor plan with {} seats", seats.size());
-            return FloorPlanResponse.builder()
-                    .seats(seats)
-                    .deskAreas(deskAreas)
-                    .officeLayout(officeLayout)
-                    .build();
-                    
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing floor plan JSON data: {}", e.getMessage(), e);
-            return createDefaultFloorPlan();
+            generator.writeObjectField("deskAreas", plan.getDeskAreas());
+            generator.writeObjectField("officeLayout", plan.getOfficeLayout());
+            generator.writeEndObject();
         }
     }
     
-    private List<String> parseEquipmentFromJson(JsonNode seatNode) {
-        List<String> equipment = new ArrayList<>();
-        
-        if (seatNode.has("equipment") && seatNode.get("equipment").isArray()) {
-            seatNode.get("equipment").forEach(item -> equipment.add(item.asText()));
-        }
-        
-        return equipment;
-    }
-    
-
-    
     private FloorPlanResponse createDefaultFloorPlan() {
         // Return a default floor plan when no data is found
         List<FloorPlanResponse.Seat> seats = Arrays.asList(
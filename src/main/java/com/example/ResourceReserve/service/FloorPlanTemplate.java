@@ -0,0 +1,172 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.dto.FloorPlanResponse;
+import com.example.ResourceReserve.entity.DynamicFloorPlanTable;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A stored floor plan as read from the database, parsed once into both a JSON
+ * tree and typed {@link FloorPlanResponse} parts, and shared by all readers.
+ * Everything held here must be treated as read-only; booking status is merged
+ * in while the response is written.
+ */
+public final class FloorPlanTemplate {
+
+    private final String planJson;
+    private final String contentHash;
+    private final JsonNode planNode;
+    private final FloorPlanResponse plan;
+    // Seats whose status comes from bookings (the ones with an id in plan_json)
+    private final boolean[] bookableSeats;
+
+    private FloorPlanTemplate(String planJson, String contentHash, JsonNode planNode, FloorPlanResponse plan,
+                              boolean[] bookableSeats) {
+        this.planJson = planJson;
+        this.contentHash = contentHash;
+        this.planNode = planNode;
+        this.plan = plan;
+        this.bookableSeats = bookableSeats;
+    }
+
+    /**
+     * Parse stored plan_json. Invalid JSON yields a template without a parsed
+     * tree or typed plan. contentHash is the stored plan_hash; it is computed
+     * here for rows saved before the column existed.
+     */
+    public static FloorPlanTemplate parse(String planJson, String contentHash, ObjectMapper objectMapper) {
+        if (contentHash == null) {
+            contentHash = DynamicFloorPlanTable.hashOf(planJson);
+        }
+        JsonNode rootNode;
+        try {
+            rootNode = objectMapper.readTree(planJson);
+        } catch (Exception e) {
+            return new FloorPlanTemplate(planJson, contentHash, null, null, new boolean[0]);
+        }
+
+        List<FloorPlanResponse.Seat> seats = new ArrayList<>();
+        List<FloorPlanResponse.DeskArea> deskAreas = new ArrayList<>();
+        List<Boolean> bookable = new ArrayList<>();
+
+        // Parse seats
+        if (rootNode.has("seats") && rootNode.get("seats").isArray()) {
+            for (JsonNode seatNode : rootNode.get("seats")) {
+                FloorPlanResponse.Seat seat = FloorPlanResponse.Seat.builder()
+                        .id(seatNode.has("id") ? seatNode.get("id").asText() : UUID.randomUUID().toString())
+                        .x(seatNode.has("x") ? seatNode.get("x").asDouble() : 0.0)
+                        .y(seatNode.has("y") ? seatNode.get("y").asDouble() : 0.0)
+                        .status(seatNode.has("status") ? seatNode.get("status").asText() : "available")
+                        .type(seatNode.has("type") ? seatNode.get("type").asText() : "desk")
+                        .equipment(parseEquipmentFromJson(seatNode))
+                        .rotation(seatNode.has("rotation") ? seatNode.get("rotation").asInt() : 0)
+                        .build();
+                seats.add(seat);
+                bookable.add(seatNode.has("id"));
+            }
+        }
+
+        // Parse desk areas
+        if (rootNode.has("deskAreas") && rootNode.get("deskAreas").isArray()) {
+            for (JsonNode areaNode : rootNode.get("deskAreas")) {
+                FloorPlanResponse.DeskArea area = FloorPlanResponse.DeskArea.builder()
+                        .id(areaNode.has("id") ? areaNode.get("id").asText() : "area1")
+                        .name(areaNode.has("name") ? areaNode.get("name").asText() : "Main Workspace")
+                        .x(areaNode.has("x") ? areaNode.get("x").asDouble() : 1.6101207354199758)
+                        .y(areaNode.has("y") ? areaNode.get("y").asDouble() : 1.869158965001005)
+                        .width(areaNode.has("width") ? areaNode.get("width").asInt() : 60)
+                        .height(areaNode.has("height") ? areaNode.get("height").asInt() : 40)
+                        .type(areaNode.has("type") ? areaNode.get("type").asText() : "workspace")
+                        .rotation(areaNode.has("rotation") ? areaNode.get("rotation").asInt() : 0)
+                        .build();
+                deskAreas.add(area);
+            }
+        }
+
+        // Create default desk area if none found
+        if (deskAreas.isEmpty()) {
+            deskAreas.add(FloorPlanResponse.DeskArea.builder()
+                    .id("area1")
+                    .name("Main Workspace")
+                    .x(1.6101207354199758)
+                    .y(1.869158965001005)
+                    .width(60)
+                    .height(40)
+                    .type("workspace")
+                    .rotation(0)
+                    .build());
+        }
+
+        // Create office layout
+        FloorPlanResponse.OfficeLayout officeLayout = FloorPlanResponse.OfficeLayout.builder()
+                .x(0)
+                .y(0)
+                .width(210)
+                .height(82)
+                .fillColor("hsl(var(--muted))")
+                .fillOpacity(0.1)
+                .strokeColor("hsl(var(--border))")
+                .strokeWidth(1)
+                .build();
+
+        boolean[] bookableSeats = new boolean[bookable.size()];
+        for (int i = 0; i < bookableSeats.length; i++) {
+            bookableSeats[i] = bookable.get(i);
+        }
+
+        FloorPlanResponse plan = FloorPlanResponse.builder()
+                .seats(List.copyOf(seats))
+                .deskAreas(List.copyOf(deskAreas))
+                .officeLayout(officeLayout)
+                .build();
+        return new FloorPlanTemplate(planJson, contentHash, rootNode, plan, bookableSeats);
+    }
+
+    private static List<String> parseEquipmentFromJson(JsonNode seatNode) {
+        List<String> equipment = new ArrayList<>();
+
+        if (seatNode.has("equipment") && seatNode.get("equipment").isArray()) {
+            seatNode.get("equipment").forEach(item -> equipment.add(item.asText()));
+        }
+
+        return equipment;
+    }
+
+    public String getPlanJson() {
+        return planJson;
+    }
+
+    /**
+     * SHA-256 of plan_json; changes exactly when the stored plan changes.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * The parsed plan, or null when the stored plan_json is not valid JSON.
+     */
+    public JsonNode getPlanNode() {
+        return planNode;
+    }
+
+    /**
+     * Typed plan with the statuses stored in plan_json, or null when the
+     * stored plan_json is not valid JSON.
+     */
+    public FloorPlanResponse getPlan() {
+        return plan;
+    }
+
+    /**
+     * Whether the status of the seat at the given position in {@link #getPlan()}
+     * is driven by bookings.
+     */
+    public boolean isBookableSeat(int index) {
+        return bookableSeats[index];
+    }
+}
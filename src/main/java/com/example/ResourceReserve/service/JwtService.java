@@ -1,20 +1,30 @@
 package com.example.ResourceReserve.service;
 
 import com.example.ResourceReserve.entity.User;
+import com.example.ResourceReserve.security.TokenClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 @Service
 @Slf4j
@@ -38,6 +48,9 @@ public class JwtService {
     @Value("${jwt.audience}")
     private String jwtAudience;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
     public String getJwtSecret() {
         return jwtSecret;
     }
@@ -50,10 +63,56 @@ public class JwtService {
         return jwtRefreshExpiration;
     }
 
+    // Built once from the configured secrets; HMAC keys and parsers are thread-safe
+    private SecretKey accessKey;
+    private SecretKey refreshKey;
+    private JwtParser accessParser;
+    private JwtParser refreshParser;
+
+    // Verified access tokens by SHA-256 digest; each entry expires with its token
+    private Cache<String, TokenClaims> verifiedAccessTokens;
+
+    @PostConstruct
+    void initKeys() {
+        accessKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        refreshKey = Keys.hmacShaKeyFor(jwtRefreshSecret.getBytes(StandardCharsets.UTF_8));
+        accessParser = Jwts.parser().verifyWith(accessKey).build();
+        refreshParser = Jwts.parser().verifyWith(refreshKey).build();
+        verifiedAccessTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(Expiry.creating((String digest, TokenClaims claims) -> timeToExpiry(claims)))
+                .recordStats()
+                .build();
+    }
+
+    private static Duration timeToExpiry(TokenClaims claims) {
+        if (claims.expiresAt() == null) {
+            return Duration.ZERO;
+        }
+        Duration remaining = Duration.between(Instant.now(), claims.expiresAt());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
     private SecretKey getSigningKey(String secret) {
+        if (jwtSecret.equals(secret)) {
+            return accessKey;
+        }
+        if (jwtRefreshSecret.equals(secret)) {
+            return refreshKey;
+        }
         return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
 
+    private JwtParser getParser(String secret) {
+        if (jwtSecret.equals(secret)) {
+            return accessParser;
+        }
+        if (jwtRefreshSecret.equals(secret)) {
+            return refreshParser;
+        }
+        return Jwts.parser().verifyWith(getSigningKey(secret)).build();
+    }
+
     public String generateAccessToken(User user) {
         return generateToken(user, jwtSecret, jwtExpiration);
     }
@@ -72,6 +131,8 @@ public class JwtService {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(user.getEmail())
+                // Unique id so tokens issued within the same second still differ (refresh tokens are stored by digest)
+                .setId(UUID.randomUUID().toString())
                 .setIssuer(jwtIssuer)
                 .setAudience(jwtAudience)
                 .setIssuedAt(new Date())
@@ -80,12 +141,66 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Verify the token's signature and expiry once and return its claims, or
+     * null if the token is invalid or expired.
+     */
+    public TokenClaims parseToken(String token, String secret) {
+        try {
+            return TokenClaims.from(extractAllClaims(token, secret));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * {@link #parseToken} for access tokens, answered from the verified-token
+     * cache when the same token was seen before. Only valid tokens are cached
+     * and an entry never outlives its token's expiry.
+     */
+    public TokenClaims parseAccessToken(String token) {
+        String digest = digestOf(token);
+        TokenClaims cached = verifiedAccessTokens.getIfPresent(digest);
+        if (cached != null) {
+            // Cache expiry can lag slightly, so check the token's own expiry as well
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedAccessTokens.invalidate(digest);
+            return null;
+        }
+        TokenClaims claims = parseToken(token, jwtSecret);
+        if (claims != null) {
+            verifiedAccessTokens.put(digest, claims);
+        }
+        return claims;
+    }
+
+    public CacheStats getVerifiedTokenCacheStats() {
+        return verifiedAccessTokens.stats();
+    }
+
+    public long getVerifiedTokenCacheSize() {
+        return verifiedAccessTokens.estimatedSize();
+    }
+
+    /**
+     * SHA-256 hex digest of a token, used wherever a token is cached or stored.
+     */
+    public static String digestOf(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     public Claims extractAllClaims(String token, String secret) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey(secret))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getParser(secret)
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
     public String extractEmail(String token, String secret) {
@@ -99,6 +214,8 @@ public class JwtService {
     public boolean isTokenExpired(String token, String secret) {
         try {
             return extractExpiration(token, secret).before(new Date());
+        } catch (ExpiredJwtException e) {
+            return true;
         } catch (Exception e) {
             log.error("Error checking token expiration: {}", e.getMessage());
             return true;
@@ -106,38 +223,19 @@ public class JwtService {
     }
 
     public boolean validateToken(String token, String secret) {
-        try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey(secret))
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token, secret);
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
-        }
+        // The parser rejects expired tokens, so one parse covers signature and expiry
+        return parseToken(token, secret) != null;
     }
 
     public String extractUserId(String token, String secret) {
-        Object userIdObj = extractAllClaims(token, secret).get("userId");
-        return userIdObj != null ? userIdObj.toString() : null;
+        return TokenClaims.from(extractAllClaims(token, secret)).userId();
     }
 
     public String extractRole(String token, String secret) {
         return extractAllClaims(token, secret).get("role", String.class);
     }
 
-    @SuppressWarnings("unchecked")
     public Set<String> extractPermissions(String token, String secret) {
-        Object permissionsObj = extractAllClaims(token, secret).get("permissions");
-        if (permissionsObj instanceof List<?>) {
-            // Filter only strings from the list
-            List<String> permissionsList = ((List<?>) permissionsObj).stream()
-                    .filter(obj -> obj instanceof String)
-                    .map(obj -> (String) obj)
-                    .collect(Collectors.toList());
-            return Set.copyOf(permissionsList);
-        }
-        return Set.of(); // empty set if no permissions or not a list
+        return TokenClaims.from(extractAllClaims(token, secret)).permissions();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.entity.DynamicFloorPlanTable;
+import com.example.ResourceReserve.repository.DynamicFloorPlanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies floor plans out of the legacy per-floor tables
+ * ({@code <office>_<building>_Floor<id>_table}) into the single
+ * {@code dynamic_floor_plan_table} store.
+ *
+ * The job runs once the application is ready, so requests are served while it
+ * copies. Until it has completed, {@link DynamicFloorPlanService} falls back to
+ * the legacy table for floors not found in the new store. The copy is
+ * idempotent: a row is only written when the floor is missing from the new
+ * store or the legacy row is newer, so saves made during the migration win.
+ * Legacy tables are left in place unless {@code floorplan.migration.drop-legacy-tables}
+ * is set.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LegacyFloorPlanMigrator {
+
+    // Tables created by the old per-floor storage: <office>_<building>_Floor<id>_table with the plan columns
+    private static final String FIND_LEGACY_TABLES_SQL =
+        "SELECT t.TABLE_NAME FROM INFORMATION_SCHEMA.TABLES t " +
+        "WHERE t.TABLE_TYPE = 'BASE TABLE' " +
+        "AND t.TABLE_NAME LIKE '%[_]Floor%[_]table' " +
+        "AND t.TABLE_NAME <> 'dynamic_floor_plan_table' " +
+        "AND (SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS c WHERE c.TABLE_NAME = t.TABLE_NAME " +
+        "     AND c.COLUMN_NAME IN ('office_location', 'building_name', 'floor_id', 'plan_json')) = 4";
+
+    private final DynamicFloorPlanRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${floorplan.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${floorplan.migration.drop-legacy-tables:false}")
+    private boolean dropLegacyTables;
+
+    private volatile boolean complete;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            log.info("Legacy floor plan migration disabled");
+            complete = true;
+            return;
+        }
+        try {
+            List<String> tables = jdbcTemplate.queryForList(FIND_LEGACY_TABLES_SQL, String.class);
+            int copied = 0;
+            for (String table : tables) {
+                Integer tableCopies = transactionTemplate.execute(status -> migrateTable(table));
+                copied += tableCopies != null ? tableCopies : 0;
+                if (dropLegacyTables) {
+                    jdbcTemplate.execute("DROP TABLE " + quote(table));
+                    log.info("Dropped legacy floor plan table {}", table);
+                }
+            }
+            complete = true;
+            log.info("Legacy floor plan migration finished: {} tables scanned, {} plans copied", tables.size(), copied);
+        } catch (Exception e) {
+            // Leave complete unset so reads keep falling back to the legacy tables
+            log.error("Legacy floor plan migration failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * True once every legacy table has been copied; legacy fallbacks are no
+     * longer needed after that.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Plan JSON for one floor from its legacy table, if the table exists.
+     */
+    public String findLegacyPlanJson(String tableName) {
+        Integer tableCount = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = ?", Integer.class, tableName);
+        if (tableCount == null || tableCount == 0) {
+            return null;
+        }
+        List<String> plans = jdbcTemplate.queryForList(
+            "SELECT TOP 1 plan_json FROM " + quote(tableName) + " ORDER BY updated_at DESC", String.class);
+        return plans.isEmpty() ? null : plans.get(0);
+    }
+
+    /**
+     * Drop a floor's legacy table so a deleted plan is not brought back by the
+     * fallback or a later migration run.
+     */
+    public void dropLegacyTable(String tableName) {
+        jdbcTemplate.execute("IF OBJECT_ID(N'" + tableName.replace("'", "''") + "', N'U') IS NOT NULL DROP TABLE " + quote(tableName));
+    }
+
+    private int migrateTable(String table) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT office_location, building_name, floor_id, plan_json, updated_at FROM " + quote(table));
+        int copied = 0;
+        for (Map<String, Object> row : rows) {
+            String officeLocation = (String) row.get("office_location");
+            String buildingName = (String) row.get("building_name");
+            String floorId = (String) row.get("floor_id");
+            String planJson = (String) row.get("plan_json");
+            LocalDateTime updatedAt = row.get("updated_at") instanceof Timestamp timestamp
+                ? timestamp.toLocalDateTime() : LocalDateTime.now();
+            if (planJson == null) {
+                continue;
+            }
+
+            DynamicFloorPlanTable floorPlan = repository
+                .findByOfficeLocationAndBuildingNameAndFloorId(officeLocation, buildingName, floorId)
+                .orElse(null);
+            if (floorPlan != null && floorPlan.getUpdatedAt() != null && !floorPlan.getUpdatedAt().isBefore(updatedAt)) {
+                continue;
+            }
+            if (floorPlan == null) {
+                floorPlan = new DynamicFloorPlanTable(buildingName, officeLocation, floorId, planJson);
+            }
+            floorPlan.setPlanJson(planJson);
+            floorPlan.setUpdatedAt(updatedAt);
+            repository.save(floorPlan);
+            copied++;
+        }
+        log.debug("Migrated {} of {} floor plans from {}", copied, rows.size(), table);
+        return copied;
+    }
+
+    private static String quote(String tableName) {
+        return "[" + tableName.replace("]", "]]") + "]";
+    }
+}
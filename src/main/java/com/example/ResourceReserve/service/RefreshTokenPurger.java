@@ -0,0 +1,49 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodically deletes expired and revoked refresh tokens. Rows are deleted in
+ * small chunks, each in its own short transaction, so the purge never holds
+ * locks on the table for long.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenPurger {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${security.refresh-token.purge-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${security.refresh-token.purge-initial-delay-ms:60000}",
+               fixedDelayString = "${security.refresh-token.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = refreshTokenRepository.deleteExpired(now, batchSize);
+                total += deleted;
+            } while (deleted == batchSize);
+            do {
+                deleted = refreshTokenRepository.deleteRevoked(batchSize);
+                total += deleted;
+            } while (deleted == batchSize);
+            if (total > 0) {
+                log.info("Purged {} expired or revoked refresh tokens", total);
+            }
+        } catch (Exception e) {
+            log.error("Refresh token purge failed after {} rows: {}", total, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ResourceReserve.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-JVM locks keyed by seat-day. Requests for different seats almost
+ * never share a stripe, so they proceed in parallel; requests for the same
+ * seat-day are serialized. Stripes are always taken in ascending order so
+ * series that overlap cannot deadlock.
+ */
+@Component
+@Slf4j
+public class SeatLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public SeatLockManager(@Value("${booking.lock.stripes:1024}") int stripeCount,
+                           @Value("${booking.lock.timeout-ms:5000}") long timeoutMillis) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Lock every stripe covering the given keys. The returned handle releases
+     * them on close.
+     */
+    public Locks lockAll(Collection<String> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (String key : keys) {
+            indexes.add(Math.floorMod(key.hashCode(), stripes.length));
+        }
+
+        Locks locks = new Locks(indexes.size());
+        try {
+            for (int index : indexes) {
+                ReentrantLock stripe = stripes[index];
+                if (!stripe.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Seat is busy, please retry");
+                }
+                locks.held[locks.count++] = stripe;
+            }
+            return locks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locks.close();
+            throw new IllegalStateException("Interrupted while waiting for seat lock", e);
+        } catch (RuntimeException e) {
+            locks.close();
+            throw e;
+        }
+    }
+
+    public static final class Locks implements AutoCloseable {
+
+        private final ReentrantLock[] held;
+        private int count;
+
+        private Locks(int size) {
+            this.held = new ReentrantLock[size];
+        }
+
+        @Override
+        public void close() {
+            while (count > 0) {
+                held[--count].unlock();
+            }
+        }
+    }
+}
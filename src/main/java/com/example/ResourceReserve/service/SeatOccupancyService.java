@@ -0,0 +1,150 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.event.BookingChangedEvent;
+import com.example.ResourceReserve.repository.BookingRepository;
+import com.example.ResourceReserve.repository.BookingSlotView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-(location, building, floor, date) seat occupancy used to overlay booking
+ * status on floor plans. A floor-day is loaded from the database on first use
+ * and then updated incrementally from {@link BookingChangedEvent}s, so the
+ * overlay is a constant-time lookup per seat.
+ */
+@Service
+@Slf4j
+public class SeatOccupancyService {
+
+    // Distinguishes occupancy versions of this process from those of earlier runs or other nodes
+    private static final String INSTANCE_ID = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+
+    private final BookingRepository bookingRepository;
+    private final AtomicLong loads = new AtomicLong();
+    private final Cache<FloorDay, FloorOccupancy> occupancyByFloorDay;
+
+    public SeatOccupancyService(BookingRepository bookingRepository,
+                                @Value("${floorplan.occupancy.max-floor-days:10000}") long maxFloorDays) {
+        this.bookingRepository = bookingRepository;
+        this.occupancyByFloorDay = Caffeine.newBuilder()
+                .maximumSize(maxFloorDays)
+                .expireAfterAccess(Duration.ofHours(12))
+                .build();
+    }
+
+    public FloorOccupancy getOccupancy(String officeLocation, String building, String floor, LocalDate date) {
+        return occupancyByFloorDay.get(new FloorDay(officeLocation, building, floor, date), this::load);
+    }
+
+    // Applied before SeatStatusChangeLog records the change
+    @EventListener
+    @Order(0)
+    public void onBookingChanged(BookingChangedEvent event) {
+        for (Booking booking : event.bookings()) {
+            if (booking.getOfficeLocation() == null || booking.getBuilding() == null || booking.getFloor() == null) {
+                continue;
+            }
+            FloorDay key = new FloorDay(booking.getOfficeLocation(), booking.getBuilding(), booking.getFloor(), booking.getDate());
+            // Floor-days that are not loaded yet will read the change from the database.
+            // computeIfPresent waits for an in-flight load, so no change is lost in between.
+            occupancyByFloorDay.asMap().computeIfPresent(key, (k, occupancy) -> {
+                if (event.type() == BookingChangedEvent.Type.CREATED) {
+                    occupancy.add(booking.getId(), booking.getSubType());
+                } else {
+                    occupancy.remove(booking.getId());
+                }
+                return occupancy;
+            });
+        }
+    }
+
+    private FloorOccupancy load(FloorDay key) {
+        List<BookingSlotView> slots = bookingRepository.findSlotsByOfficeLocationAndBuildingAndFloorAndDateAndStatus(
+                key.officeLocation(), key.building(), key.floor(), key.date(), Booking.Status.CONFIRMED);
+        FloorOccupancy occupancy = new FloorOccupancy(INSTANCE_ID + "-" + loads.incrementAndGet());
+        for (BookingSlotView slot : slots) {
+            occupancy.add(slot.getId(), slot.getSubType());
+        }
+        log.debug("Loaded occupancy for {}: {} bookings", key, slots.size());
+        return occupancy;
+    }
+
+    private record FloorDay(String officeLocation, String building, String floor, LocalDate date) {
+    }
+
+    /**
+     * Occupied seats of one floor-day. Reads are lock-free; adds and removes
+     * are idempotent per booking id so replays and load races are harmless.
+     * The version changes with every effective add or remove, and a reloaded
+     * floor-day starts from a new epoch.
+     */
+    public static final class FloorOccupancy {
+
+        private final Map<Long, String> seatByBookingId = new ConcurrentHashMap<>();
+        private final Map<String, Integer> bookingsBySeat = new ConcurrentHashMap<>();
+        private final String epoch;
+        private volatile long changes;
+
+        FloorOccupancy(String epoch) {
+            this.epoch = epoch;
+        }
+
+        /**
+         * Version of the booking overlay, usable as an ETag.
+         */
+        public String version() {
+            return epoch + "." + changes;
+        }
+
+        public boolean isOccupied(String seatId) {
+            return bookingsBySeat.containsKey(seatId);
+        }
+
+        public Set<String> occupiedSeats() {
+            return Collections.unmodifiableSet(bookingsBySeat.keySet());
+        }
+
+        /**
+         * Seat of every confirmed booking, so a seat booked for several slots
+         * appears once per booking.
+         */
+        public List<String> bookedSeats() {
+            return List.copyOf(seatByBookingId.values());
+        }
+
+        public int bookingCount() {
+            return seatByBookingId.size();
+        }
+
+        synchronized void add(Long bookingId, String seatId) {
+            if (seatId != null && seatByBookingId.putIfAbsent(bookingId, seatId) == null) {
+                bookingsBySeat.merge(seatId, 1, Integer::sum);
+                changes++;
+            }
+        }
+
+        synchronized void remove(Long bookingId) {
+            String seatId = seatByBookingId.remove(bookingId);
+            if (seatId != null) {
+                bookingsBySeat.computeIfPresent(seatId, (seat, count) -> count > 1 ? count - 1 : null);
+                changes++;
+            }
+        }
+    }
+}
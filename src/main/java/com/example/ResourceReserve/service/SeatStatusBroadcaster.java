@@ -0,0 +1,252 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.event.BookingChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes seat status changes to Server-Sent Events subscribers of a
+ * (location, building, floor, date).
+ *
+ * Subscribers are async servlet responses, so an idle subscription holds no
+ * thread. Booking threads only enqueue work; a single dispatcher thread builds
+ * the events in order and reads each seat's status when it does, so the last
+ * event a client receives for a seat always matches the current overlay.
+ *
+ * The dispatcher never writes to a response itself. Each subscriber has a
+ * bounded queue of pending events that is drained on a virtual thread, so a
+ * slow client only delays its own stream; one that falls more than
+ * {@code floorplan.sse.max-pending-events} behind is completed and
+ * reconnects to a fresh snapshot.
+ */
+@Service
+@Slf4j
+public class SeatStatusBroadcaster {
+
+    private final SeatOccupancyService seatOccupancyService;
+    private final SeatStatusChangeLog seatStatusChangeLog;
+    private final long emitterTimeoutMs;
+    private final int maxPendingEvents;
+
+    private final Map<FloorDay, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "seat-status-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("seat-status-sender-", 0).factory());
+
+    public SeatStatusBroadcaster(SeatOccupancyService seatOccupancyService,
+                                 SeatStatusChangeLog seatStatusChangeLog,
+                                 @Value("${floorplan.sse.timeout-ms:1800000}") long emitterTimeoutMs,
+                                 @Value("${floorplan.sse.heartbeat-seconds:30}") long heartbeatSeconds,
+                                 @Value("${floorplan.sse.max-pending-events:256}") int maxPendingEvents) {
+        this.seatOccupancyService = seatOccupancyService;
+        this.seatStatusChangeLog = seatStatusChangeLog;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxPendingEvents = maxPendingEvents;
+        // Heartbeats keep proxies from closing idle streams and detect gone clients
+        dispatcher.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Open a subscription. The first event is a snapshot of the booked seats
+     * together with a change-log cursor, followed by one seat-status event
+     * per change.
+     */
+    public SseEmitter subscribe(String officeLocation, String building, String floor, LocalDate date) {
+        FloorDay key = new FloorDay(officeLocation, building, floor, date);
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(key, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        // Load the floor here rather than on the dispatcher; the snapshot then reads it from the cache
+        seatOccupancyService.getOccupancy(officeLocation, building, floor, date);
+        dispatcher.execute(() -> sendSnapshot(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Runs on the dispatcher, so no seat-status event can be queued for the
+     * subscriber ahead of its snapshot. Registered before the snapshot is read,
+     * so a change either is in the snapshot or queues a seat-status event
+     * behind it.
+     */
+    private void sendSnapshot(Subscriber subscriber) {
+        FloorDay key = subscriber.key;
+        subscribers.compute(key, (k, registered) -> {
+            Set<Subscriber> updated = registered != null ? registered : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        if (subscriber.isClosed()) {
+            // The client went away before it was registered; close() may have missed the entry
+            unsubscribe(subscriber);
+            return;
+        }
+        long cursor = seatStatusChangeLog.currentSequence();
+        SeatOccupancyService.FloorOccupancy occupancy = seatOccupancyService
+                .getOccupancy(key.officeLocation(), key.building(), key.floor(), key.date());
+        subscriber.enqueue(SseEmitter.event()
+                .name("snapshot")
+                .data(Map.of("cursor", cursor, "booked_seats", List.copyOf(occupancy.occupiedSeats())))
+                .build());
+    }
+
+    /**
+     * Runs after the occupancy overlay has applied the change.
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        for (Booking booking : event.bookings()) {
+            if (booking.getOfficeLocation() == null || booking.getBuilding() == null
+                    || booking.getFloor() == null || booking.getSubType() == null) {
+                continue;
+            }
+            FloorDay key = new FloorDay(booking.getOfficeLocation(), booking.getBuilding(), booking.getFloor(), booking.getDate());
+            if (subscribers.containsKey(key)) {
+                String seatId = booking.getSubType();
+                dispatcher.execute(() -> sendSeatStatus(key, seatId));
+            }
+        }
+    }
+
+    private void sendSeatStatus(FloorDay key, String seatId) {
+        Set<Subscriber> registered = subscribers.get(key);
+        if (registered == null || registered.isEmpty()) {
+            return;
+        }
+        boolean occupied = seatOccupancyService
+                .getOccupancy(key.officeLocation(), key.building(), key.floor(), key.date())
+                .isOccupied(seatId);
+        // Built once and shared: an event builder must not be sent more than once
+        Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event()
+                .name("seat-status")
+                .data(Map.of("seat_id", seatId, "status", occupied ? "occupied" : "available"))
+                .build();
+        for (Subscriber subscriber : registered) {
+            subscriber.enqueue(event);
+        }
+    }
+
+    private void sendHeartbeats() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("keep-alive").build();
+        subscribers.values().forEach(registered -> registered.forEach(subscriber -> subscriber.enqueue(heartbeat)));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key, (k, registered) -> {
+            registered.remove(subscriber);
+            return registered.isEmpty() ? null : registered;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+        subscribers.values().forEach(registered -> registered.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    /**
+     * One stream and its pending events. Events are queued by the dispatcher
+     * and written, in order, by at most one sender thread at a time.
+     */
+    private final class Subscriber {
+
+        private final FloorDay key;
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(FloorDay key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            boolean lagging = false;
+            boolean startDrain = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= maxPendingEvents) {
+                    pending.clear();
+                    closed = true;
+                    lagging = true;
+                } else {
+                    pending.add(event);
+                    startDrain = !draining;
+                    draining = true;
+                }
+            }
+            if (lagging) {
+                log.debug("Dropping seat status subscriber for {}: {} events pending", key, maxPendingEvents);
+                unsubscribe(this);
+                emitter.complete();
+            } else if (startDrain) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                synchronized (this) {
+                    event = closed ? null : pending.poll();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (Exception e) {
+                    log.debug("Dropping seat status subscriber for {}: {}", key, e.getMessage());
+                    close();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            unsubscribe(this);
+        }
+    }
+
+    private record FloorDay(String officeLocation, String building, String floor, LocalDate date) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.event.BookingChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory log of seat status changes per (location, building, floor, date),
+ * fed from {@link BookingChangedEvent}s. Every change gets a sequence number
+ * from one monotonically increasing counter, which clients use as a cursor to
+ * fetch only the seats that changed since their last poll.
+ *
+ * Each floor-day keeps its most recent changes only. A cursor older than what
+ * a floor-day still holds gets a resync answer, and the client reloads the
+ * full seat status.
+ */
+@Service
+public class SeatStatusChangeLog {
+
+    private final int maxChangesPerFloorDay;
+    private final Cache<FloorDay, FloorDayLog> logsByFloorDay;
+
+    // Seeded from the clock so cursors keep increasing across restarts
+    private long sequence = System.currentTimeMillis() * 1000;
+
+    // Changes up to this sequence may be missing from floor-day logs created from now on
+    private final AtomicLong horizon = new AtomicLong(sequence);
+
+    public SeatStatusChangeLog(@Value("${floorplan.changes.max-per-floor-day:1000}") int maxChangesPerFloorDay,
+                               @Value("${floorplan.changes.max-floor-days:10000}") long maxFloorDays) {
+        this.maxChangesPerFloorDay = maxChangesPerFloorDay;
+        this.logsByFloorDay = Caffeine.newBuilder()
+                .maximumSize(maxFloorDays)
+                .expireAfterAccess(Duration.ofHours(12))
+                // Runs atomically with the eviction, before a new log for the key can be created
+                .evictionListener((FloorDay key, FloorDayLog log, RemovalCause cause) -> {
+                    if (log != null) {
+                        horizon.accumulateAndGet(log.lastSequence(), Math::max);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Current cursor. Read it before reading seat status so that no change
+     * after the status snapshot can be older than the cursor handed out.
+     */
+    public synchronized long currentSequence() {
+        return sequence;
+    }
+
+    /**
+     * Runs after the occupancy overlay has applied the change, so a change is
+     * never visible in the log before it is visible in seat status.
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public synchronized void onBookingChanged(BookingChangedEvent event) {
+        for (Booking booking : event.bookings()) {
+            if (booking.getOfficeLocation() == null || booking.getBuilding() == null
+                    || booking.getFloor() == null || booking.getSubType() == null) {
+                continue;
+            }
+            FloorDay key = new FloorDay(booking.getOfficeLocation(), booking.getBuilding(), booking.getFloor(), booking.getDate());
+            long changeSequence = ++sequence;
+            logsByFloorDay.get(key, k -> new FloorDayLog(horizon.get())).append(changeSequence, booking.getSubType());
+        }
+    }
+
+    /**
+     * Seats of the floor-day that changed after the given cursor, or null
+     * when the cursor is older than the retained changes and the client has
+     * to resync.
+     */
+    public Set<String> changedSeatsSince(String officeLocation, String building, String floor, LocalDate date, long since) {
+        FloorDayLog log = logsByFloorDay.getIfPresent(new FloorDay(officeLocation, building, floor, date));
+        if (log == null) {
+            return since >= horizon.get() ? Set.of() : null;
+        }
+        return log.changedSeatsSince(since);
+    }
+
+    private record FloorDay(String officeLocation, String building, String floor, LocalDate date) {
+    }
+
+    private final class FloorDayLog {
+
+        private final Deque<Change> changes = new ArrayDeque<>();
+        // Changes up to this sequence are not held by this log
+        private long truncatedAt;
+
+        FloorDayLog(long truncatedAt) {
+            this.truncatedAt = truncatedAt;
+        }
+
+        synchronized void append(long changeSequence, String seatId) {
+            changes.addLast(new Change(changeSequence, seatId));
+            if (changes.size() > maxChangesPerFloorDay) {
+                truncatedAt = changes.removeFirst().sequence();
+            }
+        }
+
+        synchronized long lastSequence() {
+            return changes.isEmpty() ? truncatedAt : changes.getLast().sequence();
+        }
+
+        synchronized Set<String> changedSeatsSince(long since) {
+            if (since < truncatedAt) {
+                return null;
+            }
+            Set<String> seats = new LinkedHashSet<>();
+            // Walk back from the newest change until the cursor is reached
+            for (Iterator<Change> it = changes.descendingIterator(); it.hasNext(); ) {
+                Change change = it.next();
+                if (change.sequence() <= since) {
+                    break;
+                }
+                seats.add(change.seatId());
+            }
+            return seats;
+        }
+    }
+
+    private record Change(long sequence, String seatId) {
+    }
+}
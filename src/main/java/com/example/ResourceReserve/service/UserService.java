@@ -5,6 +5,7 @@ import com.example.ResourceReserve.dto.UserManagementResponse;
 import com.example.ResourceReserve.entity.User;
 import com.example.ResourceReserve.entity.UserRole;
 import com.example.ResourceReserve.repository.UserRepository;
+import com.example.ResourceReserve.security.UserStatusCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -24,6 +25,7 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatusCache userStatusCache;
     
     public List<UserManagementResponse> getAllUsers() {
         log.info("Fetching all users");
@@ -103,6 +105,7 @@ public class UserService {
         }
         
         User updatedUser = userRepository.save(user);
+        userStatusCache.invalidate(userId);
         log.info("User updated successfully");
         return mapToResponse(updatedUser);
     }
@@ -113,6 +116,7 @@ public class UserService {
             throw new RuntimeException("User not found with id: " + userId);
         }
         userRepository.deleteById(userId);
+        userStatusCache.invalidate(userId);
         log.info("User deleted successfully");
     }
     
@@ -123,6 +127,7 @@ public class UserService {
         
         user.setIsActive(false);
         User deactivatedUser = userRepository.save(user);
+        userStatusCache.invalidate(userId);
         log.info("User deactivated successfully");
         return mapToResponse(deactivatedUser);
     }
@@ -134,6 +139,7 @@ public class UserService {
         
         user.setIsActive(true);
         User activatedUser = userRepository.save(user);
+        userStatusCache.invalidate(userId);
         log.info("User activated successfully");
         return mapToResponse(activatedUser);
     }
@@ -0,0 +1,3 @@
+-- Past seat-days: the archiver deletes seat_reservations rows dated before its cutoff in chunks,
+-- and each chunk seeks this index instead of scanning the table.
+CREATE INDEX ix_seat_reservations_date ON seat_reservations (date);
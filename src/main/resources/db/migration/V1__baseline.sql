@@ -0,0 +1,148 @@
+-- Baseline schema (SQL Server), matching what hibernate.ddl-auto=update used to create.
+-- Databases created before migrations were introduced are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and only run the later scripts.
+
+CREATE TABLE users (
+    id VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    department VARCHAR(255),
+    employee_id VARCHAR(255),
+    avatar VARCHAR(255),
+    last_login DATETIME2(6),
+    is_active BIT,
+    created_at DATETIME2(6) NOT NULL,
+    updated_at DATETIME2(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uq_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_permissions (
+    user_id VARCHAR(255) NOT NULL,
+    permission VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_user_permissions PRIMARY KEY (user_id, permission),
+    CONSTRAINT fk_user_permissions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE refresh_tokens (
+    id VARCHAR(255) NOT NULL,
+    token_hash CHAR(64) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    expires_at DATETIME2(6) NOT NULL,
+    is_revoked BIT,
+    created_at DATETIME2(6) NOT NULL,
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (id),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE UNIQUE INDEX ux_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+CREATE INDEX ix_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+CREATE TABLE buildings (
+    id UNIQUEIDENTIFIER NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    address TEXT,
+    city VARCHAR(100),
+    country VARCHAR(100),
+    created_at DATETIME2(6) NOT NULL,
+    updated_at DATETIME2(6) NOT NULL,
+    CONSTRAINT pk_buildings PRIMARY KEY (id)
+);
+
+CREATE TABLE floors (
+    id UNIQUEIDENTIFIER NOT NULL,
+    building_id UNIQUEIDENTIFIER NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    floor_number INT NOT NULL,
+    description TEXT,
+    is_active BIT NOT NULL,
+    created_at DATETIME2(6) NOT NULL,
+    updated_at DATETIME2(6) NOT NULL,
+    CONSTRAINT pk_floors PRIMARY KEY (id),
+    CONSTRAINT uq_floors_building_floor_number UNIQUE (building_id, floor_number),
+    CONSTRAINT fk_floors_building FOREIGN KEY (building_id) REFERENCES buildings (id)
+);
+
+CREATE TABLE desks (
+    id UNIQUEIDENTIFIER NOT NULL,
+    floor_id UNIQUEIDENTIFIER NOT NULL,
+    desk_number VARCHAR(50) NOT NULL,
+    x_position INT NOT NULL,
+    y_position INT NOT NULL,
+    width INT NOT NULL,
+    height INT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    desk_type VARCHAR(50) NOT NULL,
+    equipment NVARCHAR(MAX),
+    is_active BIT NOT NULL,
+    created_at DATETIME2(6) NOT NULL,
+    updated_at DATETIME2(6) NOT NULL,
+    CONSTRAINT pk_desks PRIMARY KEY (id),
+    CONSTRAINT uq_desks_floor_desk_number UNIQUE (floor_id, desk_number),
+    CONSTRAINT fk_desks_floor FOREIGN KEY (floor_id) REFERENCES floors (id)
+);
+
+CREATE TABLE floor_layouts (
+    id UNIQUEIDENTIFIER NOT NULL,
+    floor_id UNIQUEIDENTIFIER NOT NULL,
+    layout_data NVARCHAR(MAX) NOT NULL,
+    version INT NOT NULL,
+    is_active BIT NOT NULL,
+    created_at DATETIME2(6) NOT NULL,
+    updated_at DATETIME2(6) NOT NULL,
+    CONSTRAINT pk_floor_layouts PRIMARY KEY (id),
+    CONSTRAINT uq_floor_layouts_floor UNIQUE (floor_id),
+    CONSTRAINT fk_floor_layouts_floor FOREIGN KEY (floor_id) REFERENCES floors (id)
+);
+
+CREATE TABLE dynamic_floor_plan_table (
+    id UNIQUEIDENTIFIER NOT NULL,
+    building_name VARCHAR(255) NOT NULL,
+    office_location VARCHAR(255) NOT NULL,
+    floor_id VARCHAR(255) NOT NULL,
+    plan_json NVARCHAR(MAX) NOT NULL,
+    plan_hash VARCHAR(64),
+    updated_at DATETIME2(6),
+    CONSTRAINT pk_dynamic_floor_plan_table PRIMARY KEY (id),
+    CONSTRAINT uq_dynamic_floor_plan_location UNIQUE (office_location, building_name, floor_id)
+);
+
+CREATE TABLE bookings (
+    id VARCHAR(255) NOT NULL,
+    date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    book_type VARCHAR(255) NOT NULL,
+    sub_type VARCHAR(255),
+    office_location VARCHAR(255),
+    building VARCHAR(255),
+    floor VARCHAR(255),
+    recurrence_type VARCHAR(255),
+    end_date DATE,
+    status VARCHAR(255),
+    user_id VARCHAR(255),
+    notes VARCHAR(255),
+    created_at DATETIME2(6) NOT NULL,
+    updated_at DATETIME2(6),
+    CONSTRAINT pk_bookings PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_bookings_user_date ON bookings (user_id, date);
+
+CREATE TABLE booking_custom_dates (
+    booking_id VARCHAR(255) NOT NULL,
+    custom_date DATE,
+    CONSTRAINT fk_booking_custom_dates_booking FOREIGN KEY (booking_id) REFERENCES bookings (id)
+);
+
+CREATE TABLE seat_reservations (
+    id VARCHAR(320) NOT NULL,
+    book_type VARCHAR(255) NOT NULL,
+    sub_type VARCHAR(255),
+    date DATE NOT NULL,
+    version BIGINT NOT NULL,
+    updated_at DATETIME2(6) NOT NULL,
+    CONSTRAINT pk_seat_reservations PRIMARY KEY (id)
+);
@@ -0,0 +1,50 @@
+-- Migrate refresh_tokens from raw token storage to SHA-256 digests.
+-- A no-op on databases created from the baseline or already migrated.
+-- Existing tokens keep working: their digest is computed from the stored value.
+
+IF COL_LENGTH('refresh_tokens', 'token_hash') IS NULL
+    ALTER TABLE refresh_tokens ADD token_hash CHAR(64) NULL;
+GO
+
+IF COL_LENGTH('refresh_tokens', 'token') IS NOT NULL
+BEGIN
+    -- Revoked and expired rows are not worth migrating
+    DELETE FROM refresh_tokens WHERE is_revoked = 1 OR expires_at < GETDATE();
+
+    EXEC sp_executesql N'UPDATE refresh_tokens
+        SET token_hash = LOWER(CONVERT(CHAR(64), HASHBYTES(''SHA2_256'', CAST(token AS VARCHAR(1000))), 2))
+        WHERE token_hash IS NULL';
+
+    -- Drop the unique constraint/index Hibernate created on the wide token column
+    DECLARE @sql NVARCHAR(MAX) = N'';
+    SELECT @sql = @sql + N'ALTER TABLE refresh_tokens DROP CONSTRAINT ' + QUOTENAME(kc.name) + N'; '
+    FROM sys.key_constraints kc
+    JOIN sys.index_columns ic ON ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id
+    JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+    WHERE kc.parent_object_id = OBJECT_ID('refresh_tokens') AND kc.type = 'UQ' AND c.name = 'token';
+    SELECT @sql = @sql + N'DROP INDEX ' + QUOTENAME(i.name) + N' ON refresh_tokens; '
+    FROM sys.indexes i
+    JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id
+    JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+    WHERE i.object_id = OBJECT_ID('refresh_tokens') AND i.is_unique_constraint = 0 AND i.is_primary_key = 0
+      AND c.name = 'token';
+    EXEC sp_executesql @sql;
+
+    ALTER TABLE refresh_tokens DROP COLUMN token;
+END
+GO
+
+IF COLUMNPROPERTY(OBJECT_ID('refresh_tokens'), 'token_hash', 'AllowsNull') = 1
+BEGIN
+    -- An index on the column (created by ddl-auto) blocks the ALTER; it is recreated below
+    IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'ux_refresh_tokens_token_hash' AND object_id = OBJECT_ID('refresh_tokens'))
+        DROP INDEX ux_refresh_tokens_token_hash ON refresh_tokens;
+    ALTER TABLE refresh_tokens ALTER COLUMN token_hash CHAR(64) NOT NULL;
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'ux_refresh_tokens_token_hash' AND object_id = OBJECT_ID('refresh_tokens'))
+    CREATE UNIQUE INDEX ux_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_refresh_tokens_expires_at' AND object_id = OBJECT_ID('refresh_tokens'))
+    CREATE INDEX ix_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,44 @@
+-- Covering indexes for the BookingRepository queries.
+-- Scripts created some of the older indexes by hand, so every step checks what exists.
+
+-- Conflict checks and seat availability: countConflictingBookings, countBookingsForDateAndSeat,
+-- findConflictingDates, countSeatBookingsForTimeSlot and findActiveBookingsBySeatAndDate.
+-- They all compare status with the literal 'confirmed', which lets the filtered index match.
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_bookings_confirmed_seat_date' AND object_id = OBJECT_ID('bookings'))
+    CREATE INDEX ix_bookings_confirmed_seat_date ON bookings (sub_type, date, book_type)
+        INCLUDE (start_time, end_time)
+        WHERE status = 'confirmed';
+
+-- Conflict index warm-up: findSlotsByStatusAndDateGreaterThanEqual (status is a parameter, so unfiltered)
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_bookings_status_date' AND object_id = OBJECT_ID('bookings'))
+    CREATE INDEX ix_bookings_status_date ON bookings (status, date)
+        INCLUDE (book_type, sub_type, start_time, end_time);
+
+-- Floor occupancy and location listings: findSlotsByOfficeLocationAndBuildingAndFloorAndDateAndStatus,
+-- findByOfficeLocationAndBuildingAndFloorAndDate, findPageByLocation and the location date-range finder
+IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_bookings_location' AND object_id = OBJECT_ID('bookings'))
+    DROP INDEX idx_bookings_location ON bookings;
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_bookings_location_date' AND object_id = OBJECT_ID('bookings'))
+    CREATE INDEX ix_bookings_location_date ON bookings (office_location, building, floor, date)
+        INCLUDE (status, book_type, sub_type, start_time, end_time);
+
+-- Seat listing: findPageBySubType, keyset on (date, id)
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_bookings_subtype_date' AND object_id = OBJECT_ID('bookings'))
+    CREATE INDEX ix_bookings_subtype_date ON bookings (sub_type, date);
+
+-- Date listings: findPage, findPageByDate and findByDateBetweenOrderByDate. The clustered key (id)
+-- follows date in the index, so keyset pages on (date, id) read in index order.
+IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_bookings_date_subtype' AND object_id = OBJECT_ID('bookings'))
+    DROP INDEX idx_bookings_date_subtype ON bookings;
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_bookings_date' AND object_id = OBJECT_ID('bookings'))
+    CREATE INDEX ix_bookings_date ON bookings (date);
+
+-- User listings and the dashboard: findPageByUserId and findByUserIdAndDateBetweenOrderByDateDesc
+IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_bookings_user_id' AND object_id = OBJECT_ID('bookings'))
+    DROP INDEX idx_bookings_user_id ON bookings;
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_bookings_user_date' AND object_id = OBJECT_ID('bookings'))
+    CREATE INDEX idx_bookings_user_date ON bookings (user_id, date);
+
+-- Custom dates of a page of bookings: findCustomDatesByBookingIds and the lazy collection loads
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_booking_custom_dates_booking_id' AND object_id = OBJECT_ID('booking_custom_dates'))
+    CREATE INDEX ix_booking_custom_dates_booking_id ON booking_custom_dates (booking_id) INCLUDE (custom_date);
@@ -0,0 +1,70 @@
+-- bookings.status becomes a TINYINT code (see Booking.Status): 1 = confirmed, 2 = cancelled, 3 = completed.
+-- Statuses other than 'confirmed' never blocked a seat, so unknown or missing values become cancelled.
+
+IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_bookings_confirmed_seat_date' AND object_id = OBJECT_ID('bookings'))
+    DROP INDEX ix_bookings_confirmed_seat_date ON bookings;
+IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_bookings_status_date' AND object_id = OBJECT_ID('bookings'))
+    DROP INDEX ix_bookings_status_date ON bookings;
+IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_bookings_location_date' AND object_id = OBJECT_ID('bookings'))
+    DROP INDEX ix_bookings_location_date ON bookings;
+GO
+
+ALTER TABLE bookings ADD status_code TINYINT NULL;
+GO
+
+UPDATE bookings SET status_code = CASE LOWER(LTRIM(RTRIM(status)))
+    WHEN 'confirmed' THEN 1
+    WHEN 'completed' THEN 3
+    ELSE 2
+END;
+GO
+
+ALTER TABLE bookings DROP COLUMN status;
+EXEC sp_rename 'bookings.status_code', 'status', 'COLUMN';
+GO
+
+ALTER TABLE bookings ALTER COLUMN status TINYINT NOT NULL;
+GO
+
+CREATE INDEX ix_bookings_confirmed_seat_date ON bookings (sub_type, date, book_type)
+    INCLUDE (start_time, end_time)
+    WHERE status = 1;
+
+CREATE INDEX ix_bookings_status_date ON bookings (status, date)
+    INCLUDE (book_type, sub_type, start_time, end_time);
+
+CREATE INDEX ix_bookings_location_date ON bookings (office_location, building, floor, date)
+    INCLUDE (status, book_type, sub_type, start_time, end_time);
+GO
+
+-- Bookings older than the archive horizon are moved here by BookingArchiver, so the live
+-- table and its indexes only hold current and recent bookings.
+CREATE TABLE bookings_archive (
+    id VARCHAR(255) NOT NULL,
+    date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    book_type VARCHAR(255) NOT NULL,
+    sub_type VARCHAR(255),
+    office_location VARCHAR(255),
+    building VARCHAR(255),
+    floor VARCHAR(255),
+    recurrence_type VARCHAR(255),
+    end_date DATE,
+    status TINYINT NOT NULL,
+    user_id VARCHAR(255),
+    notes VARCHAR(255),
+    created_at DATETIME2(6) NOT NULL,
+    updated_at DATETIME2(6),
+    archived_at DATETIME2(6) NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX ix_bookings_archive_user_date ON bookings_archive (user_id, date);
+
+CREATE TABLE booking_custom_dates_archive (
+    booking_id VARCHAR(255) NOT NULL,
+    custom_date DATE
+);
+
+CREATE INDEX ix_booking_custom_dates_archive_booking_id ON booking_custom_dates_archive (booking_id) INCLUDE (custom_date);
@@ -0,0 +1,117 @@
+-- Replace the VARCHAR booking ids ("<uuid>_<date>") with sequential BIGINT keys.
+-- Old ids are kept in external_id, so links handed out before stay resolvable, and
+-- occurrences whose old ids share a client-supplied prefix get a common series_id.
+-- Live and archived bookings are numbered from one range, in creation order.
+
+CREATE SEQUENCE bookings_seq AS BIGINT START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE booking_series_seq AS BIGINT START WITH 1 INCREMENT BY 1;
+GO
+
+ALTER TABLE bookings ADD new_id BIGINT NULL, external_id VARCHAR(255) NULL, series_id BIGINT NULL;
+ALTER TABLE bookings_archive ADD new_id BIGINT NULL, external_id VARCHAR(255) NULL, series_id BIGINT NULL;
+ALTER TABLE booking_custom_dates ADD new_booking_id BIGINT NULL;
+ALTER TABLE booking_custom_dates_archive ADD new_booking_id BIGINT NULL;
+GO
+
+CREATE TABLE #booking_ids (
+    old_id VARCHAR(255) NOT NULL PRIMARY KEY,
+    new_id BIGINT NOT NULL,
+    series_key VARCHAR(255) NULL,
+    recurring BIT NOT NULL
+);
+
+INSERT INTO #booking_ids (old_id, new_id, series_key, recurring)
+SELECT id,
+       ROW_NUMBER() OVER (ORDER BY created_at, id),
+       -- "<prefix>_yyyy-MM-dd": occurrences created from one request share the prefix
+       CASE WHEN id LIKE '%[_][0-9][0-9][0-9][0-9]-[0-9][0-9]-[0-9][0-9]' THEN LEFT(id, LEN(id) - 11) END,
+       CASE WHEN recurrence_type IS NOT NULL AND recurrence_type <> 'NONE' THEN 1 ELSE 0 END
+FROM (SELECT id, created_at, recurrence_type FROM bookings
+      UNION ALL
+      SELECT id, created_at, recurrence_type FROM bookings_archive) all_bookings;
+
+-- A series needs a shared prefix and more than one occurrence; random per-row UUIDs stay unlinked
+CREATE TABLE #series_ids (series_key VARCHAR(255) NOT NULL PRIMARY KEY, series_id BIGINT NOT NULL);
+INSERT INTO #series_ids (series_key, series_id)
+SELECT series_key, ROW_NUMBER() OVER (ORDER BY MIN(new_id))
+FROM #booking_ids
+WHERE series_key IS NOT NULL AND recurring = 1
+GROUP BY series_key
+HAVING COUNT(*) > 1;
+GO
+
+UPDATE b SET new_id = m.new_id, external_id = b.id, series_id = s.series_id
+FROM bookings b
+JOIN #booking_ids m ON m.old_id = b.id
+LEFT JOIN #series_ids s ON s.series_key = m.series_key AND m.recurring = 1;
+
+UPDATE b SET new_id = m.new_id, external_id = b.id, series_id = s.series_id
+FROM bookings_archive b
+JOIN #booking_ids m ON m.old_id = b.id
+LEFT JOIN #series_ids s ON s.series_key = m.series_key AND m.recurring = 1;
+
+UPDATE d SET new_booking_id = m.new_id
+FROM booking_custom_dates d JOIN #booking_ids m ON m.old_id = d.booking_id;
+
+UPDATE d SET new_booking_id = m.new_id
+FROM booking_custom_dates_archive d JOIN #booking_ids m ON m.old_id = d.booking_id;
+
+-- Continue both sequences after the migrated ids. bookings_seq is read by Hibernate's pooled
+-- optimizer, which hands out the 50 values up to each returned value, so restart one block up.
+DECLARE @restart NVARCHAR(MAX) =
+    N'ALTER SEQUENCE bookings_seq RESTART WITH '
+        + CAST((SELECT ISNULL(MAX(new_id), 0) + 50 FROM #booking_ids) AS NVARCHAR(20)) + N'; '
+    + N'ALTER SEQUENCE booking_series_seq RESTART WITH '
+        + CAST((SELECT ISNULL(MAX(series_id), 0) + 1 FROM #series_ids) AS NVARCHAR(20)) + N';';
+EXEC sp_executesql @restart;
+
+DROP TABLE #series_ids;
+DROP TABLE #booking_ids;
+GO
+
+-- Drop the constraints and indexes on the old key columns; their names differ between
+-- databases created by ddl-auto and by the baseline
+DECLARE @sql NVARCHAR(MAX) = N'';
+SELECT @sql = @sql + N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(fk.name) + N'; '
+FROM sys.foreign_keys fk
+WHERE fk.referenced_object_id = OBJECT_ID('bookings');
+SELECT @sql = @sql + N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(kc.parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(kc.name) + N'; '
+FROM sys.key_constraints kc
+WHERE kc.type = 'PK' AND kc.parent_object_id IN (OBJECT_ID('bookings'), OBJECT_ID('bookings_archive'));
+EXEC sp_executesql @sql;
+
+IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_booking_custom_dates_booking_id' AND object_id = OBJECT_ID('booking_custom_dates'))
+    DROP INDEX ix_booking_custom_dates_booking_id ON booking_custom_dates;
+IF EXISTS (SELECT * FROM sys.indexes WHERE name = 'ix_booking_custom_dates_archive_booking_id' AND object_id = OBJECT_ID('booking_custom_dates_archive'))
+    DROP INDEX ix_booking_custom_dates_archive_booking_id ON booking_custom_dates_archive;
+GO
+
+ALTER TABLE bookings DROP COLUMN id;
+ALTER TABLE bookings_archive DROP COLUMN id;
+ALTER TABLE booking_custom_dates DROP COLUMN booking_id;
+ALTER TABLE booking_custom_dates_archive DROP COLUMN booking_id;
+GO
+
+EXEC sp_rename 'bookings.new_id', 'id', 'COLUMN';
+EXEC sp_rename 'bookings_archive.new_id', 'id', 'COLUMN';
+EXEC sp_rename 'booking_custom_dates.new_booking_id', 'booking_id', 'COLUMN';
+EXEC sp_rename 'booking_custom_dates_archive.new_booking_id', 'booking_id', 'COLUMN';
+GO
+
+ALTER TABLE bookings ALTER COLUMN id BIGINT NOT NULL;
+ALTER TABLE bookings_archive ALTER COLUMN id BIGINT NOT NULL;
+ALTER TABLE booking_custom_dates ALTER COLUMN booking_id BIGINT NOT NULL;
+ALTER TABLE booking_custom_dates_archive ALTER COLUMN booking_id BIGINT NOT NULL;
+GO
+
+ALTER TABLE bookings ADD CONSTRAINT pk_bookings PRIMARY KEY CLUSTERED (id);
+ALTER TABLE bookings_archive ADD CONSTRAINT pk_bookings_archive PRIMARY KEY CLUSTERED (id);
+ALTER TABLE booking_custom_dates ADD CONSTRAINT fk_booking_custom_dates_booking
+    FOREIGN KEY (booking_id) REFERENCES bookings (id);
+
+CREATE INDEX ix_booking_custom_dates_booking_id ON booking_custom_dates (booking_id) INCLUDE (custom_date);
+CREATE INDEX ix_booking_custom_dates_archive_booking_id ON booking_custom_dates_archive (booking_id) INCLUDE (custom_date);
+
+CREATE UNIQUE INDEX ux_bookings_external_id ON bookings (external_id) WHERE external_id IS NOT NULL;
+CREATE INDEX ix_bookings_series_id ON bookings (series_id) WHERE series_id IS NOT NULL;
+CREATE INDEX ix_bookings_archive_series_id ON bookings_archive (series_id) WHERE series_id IS NOT NULL;
@@ -0,0 +1,69 @@
+-- Recurrence rules move to booking_series: one row per series instead of a copy of the rule
+-- (recurrence type, end date and the whole custom-date list) on every occurrence. Occurrence
+-- rows keep their seat, date and time slot, since seat conflicts are checked against them.
+
+CREATE TABLE booking_series (
+    id BIGINT NOT NULL,
+    recurrence_type VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    book_type VARCHAR(255) NOT NULL,
+    sub_type VARCHAR(255),
+    office_location VARCHAR(255),
+    building VARCHAR(255),
+    floor VARCHAR(255),
+    user_id VARCHAR(255),
+    notes VARCHAR(255),
+    created_at DATETIME2(6) NOT NULL,
+    CONSTRAINT pk_booking_series PRIMARY KEY (id)
+);
+
+CREATE TABLE booking_series_dates (
+    series_id BIGINT NOT NULL,
+    custom_date DATE,
+    CONSTRAINT fk_booking_series_dates_series FOREIGN KEY (series_id) REFERENCES booking_series (id)
+);
+
+CREATE INDEX ix_booking_series_dates_series_id ON booking_series_dates (series_id) INCLUDE (custom_date);
+GO
+
+-- The rule of an existing series is taken from its first occurrence, live or archived
+WITH occurrences AS (
+    SELECT id, series_id, date, start_time, end_time, book_type, sub_type, office_location, building, floor,
+           recurrence_type, end_date, user_id, notes, created_at
+    FROM bookings WHERE series_id IS NOT NULL
+    UNION ALL
+    SELECT id, series_id, date, start_time, end_time, book_type, sub_type, office_location, building, floor,
+           recurrence_type, end_date, user_id, notes, created_at
+    FROM bookings_archive WHERE series_id IS NOT NULL
+), ranked AS (
+    SELECT *, ROW_NUMBER() OVER (PARTITION BY series_id ORDER BY date, id) AS occurrence_no
+    FROM occurrences
+)
+INSERT INTO booking_series (id, recurrence_type, start_date, end_date, start_time, end_time, book_type, sub_type,
+                            office_location, building, floor, user_id, notes, created_at)
+SELECT series_id, ISNULL(recurrence_type, 'CUSTOM'), date, end_date, start_time, end_time, book_type, sub_type,
+       office_location, building, floor, user_id, notes, created_at
+FROM ranked
+WHERE occurrence_no = 1;
+
+INSERT INTO booking_series_dates (series_id, custom_date)
+SELECT b.series_id, d.custom_date
+FROM bookings b JOIN booking_custom_dates d ON d.booking_id = b.id
+WHERE b.series_id IS NOT NULL
+UNION
+SELECT a.series_id, d.custom_date
+FROM bookings_archive a JOIN booking_custom_dates_archive d ON d.booking_id = a.id
+WHERE a.series_id IS NOT NULL;
+GO
+
+-- Occurrences no longer carry the rule
+DELETE d FROM booking_custom_dates d JOIN bookings b ON b.id = d.booking_id WHERE b.series_id IS NOT NULL;
+DELETE d FROM booking_custom_dates_archive d JOIN bookings_archive a ON a.id = d.booking_id WHERE a.series_id IS NOT NULL;
+
+UPDATE bookings SET recurrence_type = NULL, end_date = NULL WHERE series_id IS NOT NULL;
+UPDATE bookings_archive SET recurrence_type = NULL, end_date = NULL WHERE series_id IS NOT NULL;
+
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_series FOREIGN KEY (series_id) REFERENCES booking_series (id);
@@ -0,0 +1,7 @@
+-- A client id names a live booking, not every booking it was ever used for: once a booking is
+-- cancelled its id may be booked again. Only confirmed rows (status code 1) must be unique, so
+-- cancelled and completed rows keep their external_id for lookups and history.
+DROP INDEX ux_bookings_external_id ON bookings;
+
+CREATE UNIQUE INDEX ux_bookings_external_id ON bookings (external_id)
+    WHERE external_id IS NOT NULL AND status = 1;
@@ -0,0 +1,3 @@
+-- Revoked refresh tokens: the purge's deleteRevoked and deleteByUserAndIsRevokedTrue.
+-- Revoked rows are few and short-lived, so a filtered index keeps both a seek over just those rows.
+CREATE INDEX ix_refresh_tokens_revoked ON refresh_tokens (user_id) WHERE is_revoked = 1;
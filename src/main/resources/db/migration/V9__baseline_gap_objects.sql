@@ -0,0 +1,32 @@
+-- Objects that V1 creates but that databases created by ddl-auto may lack. Those databases are
+-- baselined at V1 and never run it, so each object is created here unless it already exists.
+
+IF OBJECT_ID('seat_reservations', 'U') IS NULL
+    CREATE TABLE seat_reservations (
+        id VARCHAR(320) NOT NULL,
+        book_type VARCHAR(255) NOT NULL,
+        sub_type VARCHAR(255),
+        date DATE NOT NULL,
+        version BIGINT NOT NULL,
+        updated_at DATETIME2(6) NOT NULL,
+        CONSTRAINT pk_seat_reservations PRIMARY KEY (id)
+    );
+
+IF COL_LENGTH('dynamic_floor_plan_table', 'plan_hash') IS NULL
+    ALTER TABLE dynamic_floor_plan_table ADD plan_hash VARCHAR(64) NULL;
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes
+               WHERE name = 'uq_dynamic_floor_plan_location' AND object_id = OBJECT_ID('dynamic_floor_plan_table'))
+BEGIN
+    -- Per-floor duplicates could be saved before the constraint existed; the latest plan wins
+    WITH ranked AS (
+        SELECT ROW_NUMBER() OVER (PARTITION BY office_location, building_name, floor_id
+                                  ORDER BY updated_at DESC, id) AS plan_no
+        FROM dynamic_floor_plan_table
+    )
+    DELETE FROM ranked WHERE plan_no > 1;
+
+    ALTER TABLE dynamic_floor_plan_table ADD CONSTRAINT uq_dynamic_floor_plan_location
+        UNIQUE (office_location, building_name, floor_id);
+END
@@ -0,0 +1,85 @@
+package com.example.ResourceReserve;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A database created by ddl-auto before migrations existed is baselined at
+ * V1 and never runs it. Starting the application on one must still end with
+ * the schema the entities validate against. Skipped when Docker is not
+ * available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.SQLServerDialect",
+        "spring.jpa.show-sql=false",
+        "booking.archive.enabled=false",
+        "floorplan.migration.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayBaselineTest {
+
+    @Container
+    static final MSSQLServerContainer<?> SQL_SERVER =
+            new MSSQLServerContainer<>(DockerImageName.parse("mcr.microsoft.com/mssql/server:2022-latest")).acceptLicense();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws Exception {
+        // The context may be built before the extension starts the container; start() is idempotent
+        SQL_SERVER.start();
+        createLegacySchema();
+        registry.add("spring.datasource.url", SQL_SERVER::getJdbcUrl);
+        registry.add("spring.datasource.username", SQL_SERVER::getUsername);
+        registry.add("spring.datasource.password", SQL_SERVER::getPassword);
+        registry.add("spring.datasource.driverClassName", SQL_SERVER::getDriverClassName);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void baselinedDatabaseGetsTheObjectsOnlyV1Creates() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM flyway_schema_history WHERE version = '1' AND type = 'BASELINE'", Integer.class))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT OBJECT_ID('seat_reservations', 'U')", Integer.class)).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COL_LENGTH('dynamic_floor_plan_table', 'plan_hash')", Integer.class))
+                .isNotNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sys.key_constraints WHERE name = 'uq_dynamic_floor_plan_location'", Integer.class))
+                .isEqualTo(1);
+    }
+
+    // V1 without what the original ddl-auto schema did not have
+    private static void createLegacySchema() throws Exception {
+        String script = new ClassPathResource("db/migration/V1__baseline.sql").getContentAsString(StandardCharsets.UTF_8);
+        script = Pattern.compile("CREATE TABLE seat_reservations \\(.*?\\);", Pattern.DOTALL).matcher(script).replaceAll("");
+        script = script.replace("    plan_hash VARCHAR(64),\n", "");
+        script = script.replaceAll(",\\s*CONSTRAINT uq_dynamic_floor_plan_location UNIQUE \\([^)]*\\)", "");
+        try (Connection connection = DriverManager.getConnection(
+                SQL_SERVER.getJdbcUrl(), SQL_SERVER.getUsername(), SQL_SERVER.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute(script);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.ResourceReserve;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Full application context on an in-memory H2 database
+ * (see integration-test.properties).
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@TestPropertySource(locations = "classpath:integration-test.properties")
+public @interface IntegrationTest {
+}
@@ -0,0 +1,157 @@
+package com.example.ResourceReserve.repository;
+
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.entity.Booking.Status;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations on SQL Server and checks that the listing and
+ * conflict queries, with the SQL and parameters Hibernate actually sends, are
+ * answered by seeks on the indexes meant for them (read from
+ * sys.dm_db_index_usage_stats). Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.SQLServerDialect",
+        "spring.jpa.show-sql=false",
+        "booking.archive.enabled=false",
+        "floorplan.migration.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingIndexUsageTest {
+
+    private static final int SEATS = 200;
+    private static final int DAYS = 100;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2031, 1, 1);
+
+    @Container
+    static final MSSQLServerContainer<?> SQL_SERVER =
+            new MSSQLServerContainer<>(DockerImageName.parse("mcr.microsoft.com/mssql/server:2022-latest")).acceptLicense();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        // With a per-class instance the context is built before the extension starts the container
+        SQL_SERVER.start();
+        registry.add("spring.datasource.url", SQL_SERVER::getJdbcUrl);
+        registry.add("spring.datasource.username", SQL_SERVER::getUsername);
+        registry.add("spring.datasource.password", SQL_SERVER::getPassword);
+        registry.add("spring.datasource.driverClassName", SQL_SERVER::getDriverClassName);
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        // 20,000 bookings: 200 seats over 100 days, one in ten cancelled
+        List<Object[]> rows = new ArrayList<>(SEATS * DAYS);
+        for (int seat = 0; seat < SEATS; seat++) {
+            for (int day = 0; day < DAYS; day++) {
+                rows.add(new Object[] {
+                        Date.valueOf(FIRST_DAY.plusDays(day)), Time.valueOf(LocalTime.of(9, 0)), Time.valueOf(LocalTime.of(17, 0)),
+                        "desk-" + seat, "site-" + seat % 4, "B1", String.valueOf(seat % 5),
+                        (seat + day) % 10 == 0 ? Status.CANCELLED.getCode() : Status.CONFIRMED.getCode(),
+                        "user-" + (seat * DAYS + day) % 500
+                });
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO bookings (id, date, start_time, end_time, book_type, sub_type, office_location, building, floor, "
+                        + "status, user_id, created_at) "
+                        + "VALUES (NEXT VALUE FOR bookings_seq, ?, ?, ?, 'DESK', ?, ?, ?, ?, ?, ?, SYSUTCDATETIME())",
+                rows);
+        jdbcTemplate.execute("UPDATE STATISTICS bookings WITH FULLSCAN");
+    }
+
+    @Test
+    void conflictCheckSeeksTheFilteredConfirmedIndex() {
+        assertSeeks("ix_bookings_confirmed_seat_date", () -> bookingRepository.findConflictingDates(
+                List.of(FIRST_DAY.plusDays(3), FIRST_DAY.plusDays(10)), LocalTime.of(10, 0), LocalTime.of(11, 0),
+                BookType.DESK, "desk-7"));
+    }
+
+    @Test
+    void availabilityCheckSeeksTheFilteredConfirmedIndex() {
+        assertSeeks("ix_bookings_confirmed_seat_date", () -> bookingRepository.countSeatBookingsForTimeSlot(
+                "desk-7", FIRST_DAY.plusDays(3), LocalTime.of(10, 0), LocalTime.of(11, 0)));
+    }
+
+    @Test
+    void bulkRecheckSeeksTheFilteredConfirmedIndex() {
+        assertSeeks("ix_bookings_confirmed_seat_date", () -> bookingRepository.findConfirmedSlotsBySeatAndDates(
+                BookType.DESK, "desk-7", List.of(FIRST_DAY.plusDays(3), FIRST_DAY.plusDays(10))));
+    }
+
+    @Test
+    void locationListingSeeksTheLocationIndex() {
+        assertSeeks("ix_bookings_location_date", () -> bookingRepository.findPageByLocation(
+                "site-1", "B1", "3", FIRST_DAY.plusDays(5), BookingRepository.FIRST_PAGE_DATE, BookingRepository.FIRST_PAGE_ID, Limit.of(51)));
+    }
+
+    @Test
+    void statusListingSeeksTheStatusIndex() {
+        assertSeeks("ix_bookings_status_date", () -> bookingRepository.findPageByStatus(
+                Status.CANCELLED, BookingRepository.FIRST_PAGE_DATE, BookingRepository.FIRST_PAGE_ID, Limit.of(51)));
+    }
+
+    @Test
+    void seatListingSeeksTheSeatIndex() {
+        assertSeeks("ix_bookings_subtype_date", () -> bookingRepository.findPageBySubType(
+                "desk-7", BookingRepository.FIRST_PAGE_DATE, BookingRepository.FIRST_PAGE_ID, Limit.of(51)));
+    }
+
+    @Test
+    void dateListingSeeksTheDateIndex() {
+        assertSeeks("ix_bookings_date", () -> bookingRepository.findPageByDate(
+                FIRST_DAY.plusDays(5), BookingRepository.FIRST_PAGE_DATE, BookingRepository.FIRST_PAGE_ID, Limit.of(51)));
+    }
+
+    @Test
+    void userListingSeeksTheUserIndex() {
+        assertSeeks("idx_bookings_user_date", () -> bookingRepository.findPageByUserId(
+                "user-42", BookingRepository.FIRST_PAGE_DATE, BookingRepository.FIRST_PAGE_ID, Limit.of(51)));
+    }
+
+    private void assertSeeks(String index, Runnable query) {
+        long before = seeks(index);
+        query.run();
+        assertThat(seeks(index)).as("seeks on %s", index).isGreaterThan(before);
+    }
+
+    private long seeks(String index) {
+        Long seeks = jdbcTemplate.queryForObject(
+                "SELECT ISNULL(SUM(s.user_seeks), 0) FROM sys.indexes i "
+                        + "LEFT JOIN sys.dm_db_index_usage_stats s "
+                        + "ON s.database_id = DB_ID() AND s.object_id = i.object_id AND s.index_id = i.index_id "
+                        + "WHERE i.object_id = OBJECT_ID('bookings') AND i.name = ?",
+                Long.class, index);
+        assertThat(seeks).as("index %s exists", index).isNotNull();
+        return seeks;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.entity.Booking.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the archive job on SQL Server, whose T-SQL chunk statement the H2
+ * integration database cannot execute, over more bookings than one chunk
+ * holds. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.SQLServerDialect",
+        "spring.jpa.show-sql=false",
+        "booking.archive.enabled=true",
+        "booking.archive.initial-delay-ms=3600000",
+        "booking.archive.batch-size=3",
+        "floorplan.migration.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class BookingArchiverTest {
+
+    private static final int OLD_BOOKINGS = 8;
+    private static final int RECENT_BOOKINGS = 2;
+
+    @Container
+    static final MSSQLServerContainer<?> SQL_SERVER =
+            new MSSQLServerContainer<>(DockerImageName.parse("mcr.microsoft.com/mssql/server:2022-latest")).acceptLicense();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        SQL_SERVER.start();
+        registry.add("spring.datasource.url", SQL_SERVER::getJdbcUrl);
+        registry.add("spring.datasource.username", SQL_SERVER::getUsername);
+        registry.add("spring.datasource.password", SQL_SERVER::getPassword);
+        registry.add("spring.datasource.driverClassName", SQL_SERVER::getDriverClassName);
+    }
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bookingsPastTheHorizonAreMovedInChunks() {
+        LocalDate old = LocalDate.now().minusDays(200);
+        LocalDate recent = LocalDate.now().minusDays(10);
+        // Old bookings alternate confirmed and cancelled; each has two custom dates
+        for (int i = 0; i < OLD_BOOKINGS; i++) {
+            long id = insertBooking(old.plusDays(i), "desk-" + i, i % 2 == 0 ? Status.CONFIRMED : Status.CANCELLED);
+            insertCustomDate(id, old.plusDays(i));
+            insertCustomDate(id, old.plusDays(i + 7));
+            insertReservation("desk-" + i, old.plusDays(i));
+        }
+        for (int i = 0; i < RECENT_BOOKINGS; i++) {
+            long id = insertBooking(recent.plusDays(i), "desk-" + i, Status.CONFIRMED);
+            insertCustomDate(id, recent.plusDays(i));
+            insertReservation("desk-" + i, recent.plusDays(i));
+        }
+
+        bookingArchiver.archive();
+
+        assertThat(count("bookings")).isEqualTo(RECENT_BOOKINGS);
+        assertThat(count("booking_custom_dates")).isEqualTo(RECENT_BOOKINGS);
+        assertThat(count("seat_reservations")).isEqualTo(RECENT_BOOKINGS);
+        assertThat(count("bookings_archive")).isEqualTo(OLD_BOOKINGS);
+        assertThat(count("booking_custom_dates_archive")).isEqualTo(OLD_BOOKINGS * 2);
+        // Confirmed bookings are archived as completed; cancelled ones keep their status
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT status FROM bookings_archive ORDER BY status", Integer.class))
+                .containsExactly(Status.CANCELLED.getCode(), Status.COMPLETED.getCode());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings_archive WHERE status = ?", Integer.class, Status.COMPLETED.getCode()))
+                .isEqualTo(OLD_BOOKINGS / 2);
+    }
+
+    private long insertBooking(LocalDate date, String seat, Status status) {
+        Long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR bookings_seq", Long.class);
+        jdbcTemplate.update(
+                "INSERT INTO bookings (id, date, start_time, end_time, book_type, sub_type, office_location, building, "
+                        + "floor, recurrence_type, status, user_id, created_at) "
+                        + "VALUES (?, ?, '09:00', '17:00', 'DESK', ?, 'HQ', 'B1', '1', 'CUSTOM', ?, 'user-1', SYSUTCDATETIME())",
+                id, Date.valueOf(date), seat, status.getCode());
+        return id;
+    }
+
+    private void insertCustomDate(long bookingId, LocalDate date) {
+        jdbcTemplate.update("INSERT INTO booking_custom_dates (booking_id, custom_date) VALUES (?, ?)",
+                bookingId, Date.valueOf(date));
+    }
+
+    private void insertReservation(String seat, LocalDate date) {
+        jdbcTemplate.update(
+                "INSERT INTO seat_reservations (id, book_type, sub_type, date, version, updated_at) "
+                        + "VALUES (?, 'DESK', ?, ?, 0, SYSUTCDATETIME())",
+                "DESK|" + seat + "|" + date, seat, Date.valueOf(date));
+    }
+
+    private Integer count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Many clients racing for the same seat-day: exactly one booking wins, every
+ * other request gets 409 and nothing is double-booked.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class BookingConcurrencyTest {
+
+    private static final int CLIENTS = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void onlyOneOfConcurrentBookingsForTheSameSeatDaySucceeds() throws Exception {
+        LocalDate date = LocalDate.of(2031, 3, 3);
+        String seat = "desk-race";
+        String body = """
+                {"date": "%s", "startTime": "09:00", "endTime": "17:00", "bookType": "DESK",
+                 "subType": "%s", "officeLocation": "HQ", "building": "B1", "floor": "1"}
+                """.formatted(date, seat);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                String userId = "user-" + i;
+                statuses.add(clients.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/bookings/seat")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body.replace("}", ", \"userId\": \"" + userId + "\"}")))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(results).filteredOn(status -> status == 200).hasSize(1);
+            assertThat(results).filteredOn(status -> status == 409).hasSize(CLIENTS - 1);
+        } finally {
+            clients.shutdownNow();
+        }
+
+        List<Booking> booked = bookingRepository.findActiveBookingsBySeatAndDate(seat, date);
+        assertThat(booked).hasSize(1);
+    }
+}
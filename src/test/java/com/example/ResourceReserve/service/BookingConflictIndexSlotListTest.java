@@ -0,0 +1,83 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.service.BookingConflictIndex.Slot;
+import com.example.ResourceReserve.service.BookingConflictIndex.SlotList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingConflictIndexSlotListTest {
+
+    @Test
+    void touchingSlotsDoNotOverlap() {
+        SlotList slots = SlotList.of(slot(1, "09:00", "10:00"));
+
+        assertThat(slots.overlaps(time("10:00"), time("11:00"))).isFalse();
+        assertThat(slots.overlaps(time("08:00"), time("09:00"))).isFalse();
+    }
+
+    @Test
+    void partialOverlapOnEitherSide() {
+        SlotList slots = SlotList.of(slot(1, "09:00", "10:00"));
+
+        assertThat(slots.overlaps(time("09:30"), time("10:30"))).isTrue();
+        assertThat(slots.overlaps(time("08:30"), time("09:01"))).isTrue();
+    }
+
+    @Test
+    void containmentInEitherDirection() {
+        SlotList day = SlotList.of(slot(1, "09:00", "17:00"));
+        SlotList hour = SlotList.of(slot(2, "10:00", "11:00"));
+
+        assertThat(day.overlaps(time("10:00"), time("11:00"))).isTrue();
+        assertThat(hour.overlaps(time("09:00"), time("17:00"))).isTrue();
+        assertThat(day.overlaps(time("09:00"), time("17:00"))).isTrue();
+    }
+
+    @Test
+    void requestBetweenSlotsIsFree() {
+        SlotList slots = SlotList.of(slot(1, "09:00", "10:00"))
+                .with(slot(2, "12:00", "13:00"))
+                .with(slot(3, "15:00", "16:00"));
+
+        assertThat(slots.overlaps(time("10:00"), time("12:00"))).isFalse();
+        assertThat(slots.overlaps(time("13:00"), time("15:00"))).isFalse();
+        assertThat(slots.overlaps(time("16:00"), time("18:00"))).isFalse();
+        assertThat(slots.overlaps(time("07:00"), time("09:00"))).isFalse();
+        assertThat(slots.overlaps(time("11:00"), time("12:30"))).isTrue();
+    }
+
+    @Test
+    void longEarlierSlotIsFoundThroughRunningMaxEnd() {
+        // The slot right before the request ends early, but an earlier one spans the whole day
+        SlotList slots = SlotList.of(slot(1, "08:00", "18:00"))
+                .with(slot(2, "09:00", "09:30"))
+                .with(slot(3, "12:00", "12:30"));
+
+        assertThat(slots.overlaps(time("13:00"), time("14:00"))).isTrue();
+        assertThat(slots.overlaps(time("18:00"), time("19:00"))).isFalse();
+    }
+
+    @Test
+    void addingIsIdempotentPerBookingAndRemovingFreesTheSlot() {
+        SlotList slots = SlotList.of(slot(1, "09:00", "10:00"))
+                .with(slot(1, "09:00", "10:00"))
+                .with(slot(2, "11:00", "12:00"));
+
+        SlotList remaining = slots.without(1L);
+
+        assertThat(remaining.overlaps(time("09:00"), time("10:00"))).isFalse();
+        assertThat(remaining.overlaps(time("11:00"), time("12:00"))).isTrue();
+        assertThat(remaining.without(2L)).isNull();
+    }
+
+    private static Slot slot(long bookingId, String start, String end) {
+        return new Slot(time(start), time(end), bookingId);
+    }
+
+    private static LocalTime time(String value) {
+        return LocalTime.parse(value);
+    }
+}
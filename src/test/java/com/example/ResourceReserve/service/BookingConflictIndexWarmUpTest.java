@@ -0,0 +1,137 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.event.BookingChangedEvent;
+import com.example.ResourceReserve.repository.BookingRepository;
+import com.example.ResourceReserve.repository.BookingSlotView;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cancellations applied while the index is loading must not be undone by the
+ * rows the load read before they committed, and a slot the index still holds
+ * is only a conflict if the database agrees.
+ */
+class BookingConflictIndexWarmUpTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(7);
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+    private static final LocalTime FIVE = LocalTime.of(17, 0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingConflictIndex index = new BookingConflictIndex(bookingRepository);
+
+    @Test
+    void cancellationDuringWarmUpIsNotResurrectedByTheLoad() {
+        Booking booking = booking(42L);
+        BookingSlotView loaded = slotView(booking);
+        when(bookingRepository.findSlotsByStatusAndDateGreaterThanEqual(eq(Booking.Status.CONFIRMED), any()))
+                .thenAnswer(invocation -> {
+                    // The row was read as confirmed, then its cancellation committed before the load was merged
+                    index.onBookingChanged(BookingChangedEvent.cancelled(booking));
+                    return List.of(loaded);
+                });
+
+        index.warm();
+
+        assertThat(index.isIndexed(DATE)).isTrue();
+        assertThat(index.findConflictingDates(BookType.DESK, "desk-1", List.of(DATE), NINE, FIVE)).isEmpty();
+    }
+
+    @Test
+    void loadedBookingsStillConflictAfterWarmUp() {
+        BookingSlotView loaded = slotView(booking(43L));
+        when(bookingRepository.findSlotsByStatusAndDateGreaterThanEqual(eq(Booking.Status.CONFIRMED), any()))
+                .thenReturn(List.of(loaded));
+        when(bookingRepository.findConflictingDates(List.of(DATE), NINE, FIVE, BookType.DESK, "desk-1"))
+                .thenReturn(List.of(DATE));
+
+        index.warm();
+
+        assertThat(index.findConflictingDates(BookType.DESK, "desk-1", List.of(DATE), NINE, FIVE)).containsExactly(DATE);
+    }
+
+    @Test
+    void slotCancelledOnAnotherNodeIsNotAConflict() {
+        BookingSlotView loaded = slotView(booking(45L));
+        when(bookingRepository.findSlotsByStatusAndDateGreaterThanEqual(eq(Booking.Status.CONFIRMED), any()))
+                .thenReturn(List.of(loaded));
+        index.warm();
+
+        // The cancellation committed elsewhere, so no event removed the slot here
+        when(bookingRepository.findConflictingDates(List.of(DATE), NINE, FIVE, BookType.DESK, "desk-1"))
+                .thenReturn(List.of());
+
+        assertThat(index.findConflictingDates(BookType.DESK, "desk-1", List.of(DATE), NINE, FIVE)).isEmpty();
+    }
+
+    @Test
+    void freeIndexedDatesAreNotQueried() {
+        when(bookingRepository.findSlotsByStatusAndDateGreaterThanEqual(eq(Booking.Status.CONFIRMED), any()))
+                .thenReturn(List.of());
+        index.warm();
+
+        assertThat(index.findConflictingDates(BookType.DESK, "desk-1", List.of(DATE), NINE, FIVE)).isEmpty();
+        verify(bookingRepository, never()).findConflictingDates(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void pruneDropsPastSeatDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Booking past = booking(46L);
+        past.setDate(yesterday);
+        when(bookingRepository.findSlotsByStatusAndDateGreaterThanEqual(eq(Booking.Status.CONFIRMED), any()))
+                .thenReturn(List.of());
+        index.warm();
+        index.onBookingChanged(BookingChangedEvent.created(List.of(past)));
+
+        index.prune();
+
+        assertThat(index.isIndexed(yesterday)).isFalse();
+        assertThat(index.isIndexed(LocalDate.now())).isTrue();
+        assertThat(index.indexedSeatDays()).isZero();
+    }
+
+    @Test
+    void cancellationAfterWarmUpRemovesTheSlot() {
+        Booking booking = booking(44L);
+        BookingSlotView loaded = slotView(booking);
+        when(bookingRepository.findSlotsByStatusAndDateGreaterThanEqual(eq(Booking.Status.CONFIRMED), any()))
+                .thenReturn(List.of(loaded));
+        index.warm();
+
+        index.onBookingChanged(BookingChangedEvent.cancelled(booking));
+
+        assertThat(index.findConflictingDates(BookType.DESK, "desk-1", List.of(DATE), NINE, FIVE)).isEmpty();
+    }
+
+    private static Booking booking(Long id) {
+        Booking booking = new Booking(DATE, NINE, FIVE, BookType.DESK, "desk-1", "HQ", "B1", "1",
+                Booking.RecurrenceType.NONE, null, null, Booking.Status.CONFIRMED);
+        booking.setId(id);
+        return booking;
+    }
+
+    private static BookingSlotView slotView(Booking booking) {
+        BookingSlotView view = mock(BookingSlotView.class);
+        when(view.getId()).thenReturn(booking.getId());
+        when(view.getDate()).thenReturn(booking.getDate());
+        when(view.getStartTime()).thenReturn(booking.getStartTime());
+        when(view.getEndTime()).thenReturn(booking.getEndTime());
+        when(view.getBookType()).thenReturn(booking.getBookType());
+        when(view.getSubType()).thenReturn(booking.getSubType());
+        return view;
+    }
+}
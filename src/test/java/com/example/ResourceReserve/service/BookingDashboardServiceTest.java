@@ -0,0 +1,53 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.dto.BookingResponse;
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.entity.Booking.RecurrenceType;
+import com.example.ResourceReserve.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dashboard sections list bookings oldest first, as the endpoint always has.
+ */
+@IntegrationTest
+class BookingDashboardServiceTest {
+
+    private static final String USER = "dashboard-user";
+
+    @Autowired
+    private BookingDashboardService bookingDashboardService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void sectionsAreOldestFirst() {
+        LocalDate today = LocalDate.now();
+        for (int days : new int[] { -3, 5, -10, 0, 2, -1 }) {
+            save(today.plusDays(days));
+        }
+
+        BookingDashboardService.Dashboard dashboard = bookingDashboardService.getDashboard(USER);
+
+        assertThat(dashboard.history()).extracting(BookingResponse::getDate)
+                .containsExactly(today.minusDays(10), today.minusDays(3), today.minusDays(1));
+        assertThat(dashboard.today()).extracting(BookingResponse::getDate).containsExactly(today);
+        assertThat(dashboard.upcoming()).extracting(BookingResponse::getDate)
+                .containsExactly(today.plusDays(2), today.plusDays(5));
+    }
+
+    private void save(LocalDate date) {
+        Booking booking = new Booking(date, LocalTime.of(9, 0), LocalTime.of(17, 0), BookType.DESK, "desk-dashboard",
+                "HQ", "B1", "1", RecurrenceType.NONE, null, null, Booking.Status.CONFIRMED);
+        booking.setUserId(USER);
+        bookingRepository.save(booking);
+    }
+}
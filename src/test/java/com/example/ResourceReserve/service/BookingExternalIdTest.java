@@ -0,0 +1,90 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.dto.BookingRequest;
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Client-supplied booking ids: unique among confirmed bookings only, so an id
+ * can be booked again once its booking is cancelled, and reusing a live one
+ * is reported as such rather than as a seat conflict.
+ */
+@IntegrationTest
+class BookingExternalIdTest {
+
+    private static final LocalDate DATE = LocalDate.of(2031, 4, 7);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void cancelledClientIdCanBeBookedAgain() {
+        Booking first = bookingService.createBooking(request("client-rebook", "desk-ext-1"), "user-1").get(0);
+        bookingService.cancelBooking("client-rebook_" + DATE, "user-1");
+
+        Booking second = bookingService.createBooking(request("client-rebook", "desk-ext-1"), "user-1").get(0);
+
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(bookingService.getBookingById("client-rebook_" + DATE))
+                .get()
+                .extracting(Booking::getId)
+                .isEqualTo(second.getId());
+    }
+
+    @Test
+    void liveClientIdIsReportedAsInUse() {
+        bookingService.createBooking(request("client-live", "desk-ext-2"), "user-1");
+
+        assertThatThrownBy(() -> bookingService.createBooking(request("client-live", "desk-ext-3"), "user-1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Booking id client-live is already in use on " + DATE);
+    }
+
+    @Test
+    void bulkItemsSharingAClientIdAndDateAreInvalid() {
+        BookingService.BulkBookingResult result = bookingService.createBookings(
+                List.of(request("client-bulk", "desk-ext-4"), request("client-bulk", "desk-ext-5")), "user-1");
+
+        assertThat(result.committed()).isFalse();
+        assertThat(result.items().get(0).status()).isEqualTo("not_booked");
+        assertThat(result.items().get(1).status()).isEqualTo("invalid");
+        assertThat(result.items().get(1).message())
+                .isEqualTo("Booking id client-bulk is used by more than one item on " + DATE);
+    }
+
+    @Test
+    void bulkItemWithALiveClientIdIsInvalid() {
+        bookingService.createBooking(request("client-bulk-live", "desk-ext-6"), "user-1");
+
+        BookingService.BulkBookingResult result = bookingService.createBookings(
+                List.of(request(null, "desk-ext-7"), request("client-bulk-live", "desk-ext-8")), "user-1");
+
+        assertThat(result.committed()).isFalse();
+        assertThat(result.items().get(1).status()).isEqualTo("invalid");
+        assertThat(result.items().get(1).message())
+                .isEqualTo("Booking id client-bulk-live is already in use on " + DATE);
+    }
+
+    private static BookingRequest request(String id, String seat) {
+        BookingRequest request = new BookingRequest();
+        request.setId(id);
+        request.setDate(DATE.toString());
+        request.setStartTime("09:00");
+        request.setEndTime("17:00");
+        request.setBookType(BookType.DESK);
+        request.setSubType(seat);
+        request.setOfficeLocation("HQ");
+        request.setBuilding("B1");
+        request.setFloor("1");
+        return request;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.dto.BookingResponse;
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.entity.Booking.RecurrenceType;
+import com.example.ResourceReserve.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset pages of a listing: the first page starts before every booking and
+ * consecutive pages neither skip nor repeat rows.
+ */
+@IntegrationTest
+class BookingListingCursorTest {
+
+    private static final String SEAT = "desk-cursor";
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void bookingsOnTheLastDayAreListed() {
+        save(LAST_DAY);
+        save(LAST_DAY);
+        save(LocalDate.of(2031, 11, 11));
+
+        BookingService.BookingPage first = bookingService.getBookings(null, SEAT, null, null, null, 2);
+        BookingService.BookingPage second = bookingService.getBookings(null, SEAT, null, null, first.nextCursor(), 2);
+
+        assertThat(first.bookings()).extracting(BookingResponse::getDate).containsExactly(LAST_DAY, LAST_DAY);
+        assertThat(second.bookings()).extracting(BookingResponse::getDate).containsExactly(LocalDate.of(2031, 11, 11));
+    }
+
+    private void save(LocalDate date) {
+        Booking booking = new Booking(date, LocalTime.of(9, 0), LocalTime.of(17, 0), BookType.DESK, SEAT,
+                "HQ", "B1", "1", RecurrenceType.NONE, null, null, Booking.Status.CONFIRMED);
+        booking.setUserId("user-1");
+        bookingRepository.save(booking);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.entity.Booking.RecurrenceType;
+import com.example.ResourceReserve.repository.BookingRepository;
+import com.example.ResourceReserve.repository.SeatReservationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing a page of bookings must not issue one statement per booking to
+ * load its custom dates.
+ */
+@IntegrationTest
+class BookingListingQueryCountTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        seatReservationRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        LocalDate start = LocalDate.of(2030, 1, 1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Booking booking = new Booking(start.plusDays(i), LocalTime.of(9, 0), LocalTime.of(17, 0),
+                    BookType.DESK, "desk-" + i, "HQ", "B1", "1", RecurrenceType.CUSTOM, null,
+                    new ArrayList<>(List.of(start.plusDays(i), start.plusDays(i + 7))), Booking.Status.CONFIRMED);
+            booking.setUserId("user-1");
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void pageOfBookingsWithCustomDatesIsLoadedWithConstantStatements() {
+        long smallPage = statementsToList(5);
+        long largePage = statementsToList(50);
+
+        assertThat(largePage).isEqualTo(smallPage);
+        // The page itself and the custom dates of all its bookings
+        assertThat(largePage).isEqualTo(2);
+    }
+
+    @Test
+    void everyBookingOfThePageHasItsCustomDates() {
+        BookingService.BookingPage page = bookingService.getBookings(null, null, null, null, null, 50);
+
+        assertThat(page.bookings()).hasSize(50);
+        assertThat(page.bookings()).allSatisfy(booking -> assertThat(booking.getCustomDates()).hasSize(2));
+    }
+
+    private long statementsToList(int limit) {
+        statistics.clear();
+        BookingService.BookingPage page = bookingService.getBookings(null, null, null, null, null, limit);
+        assertThat(page.bookings()).hasSize(limit);
+        return statistics.getPrepareStatementCount();
+    }
+}
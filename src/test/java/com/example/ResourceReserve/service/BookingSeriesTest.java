@@ -0,0 +1,67 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.dto.BookingRequest;
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.entity.Booking.RecurrenceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expansion of a request's recurrence into the dates that are booked.
+ */
+@IntegrationTest
+class BookingSeriesTest {
+
+    private static final LocalDate DATE = LocalDate.of(2031, 7, 7);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void customDatesBeforeTheRequestDateAreBooked() {
+        BookingRequest request = request("desk-series-1", DATE);
+        BookingRequest.RecurrenceRequest recurrence = new BookingRequest.RecurrenceRequest();
+        recurrence.setType(RecurrenceType.CUSTOM);
+        recurrence.setCustomDates(List.of(DATE.plusDays(2).toString(), DATE.minusDays(3).toString(), DATE.toString()));
+        request.setRecurrence(recurrence);
+
+        List<Booking> bookings = bookingService.createBooking(request, "user-1");
+
+        assertThat(bookings).extracting(Booking::getDate)
+                .containsExactly(DATE.minusDays(3), DATE, DATE.plusDays(2));
+    }
+
+    @Test
+    void weeklySeriesStartsOnTheRequestDate() {
+        BookingRequest request = request("desk-series-2", DATE);
+        BookingRequest.RecurrenceRequest recurrence = new BookingRequest.RecurrenceRequest();
+        recurrence.setType(RecurrenceType.WEEKLY);
+        recurrence.setEndDate(DATE.plusDays(14).toString());
+        request.setRecurrence(recurrence);
+
+        List<Booking> bookings = bookingService.createBooking(request, "user-1");
+
+        assertThat(bookings).extracting(Booking::getDate)
+                .containsExactly(DATE, DATE.plusWeeks(1), DATE.plusWeeks(2));
+    }
+
+    private static BookingRequest request(String seat, LocalDate date) {
+        BookingRequest request = new BookingRequest();
+        request.setDate(date.toString());
+        request.setStartTime("09:00");
+        request.setEndTime("17:00");
+        request.setBookType(BookType.DESK);
+        request.setSubType(seat);
+        request.setOfficeLocation("HQ");
+        request.setBuilding("B1");
+        request.setFloor("1");
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.dto.BookingRequest;
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The booking-status body is read from the same occupancy overlay as its
+ * ETag, so an unchanged ETag always stands for an unchanged body.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class BookingStatusOverlayTest {
+
+    private static final LocalDate DATE = LocalDate.of(2031, 10, 10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void bodyFollowsTheOverlay() throws Exception {
+        bookingService.createBooking(request("desk-overlay-1", "09:00", "12:00"), "user-1");
+        bookingService.createBooking(request("desk-overlay-1", "13:00", "17:00"), "user-1");
+        Booking cancelled = bookingService.createBooking(request("desk-overlay-2", "09:00", "17:00"), "user-2").get(0);
+        bookingService.cancelBooking(cancelled.getId().toString(), "user-2");
+
+        JsonNode data = objectMapper.readTree(mockMvc.perform(get("/api/v1/dynamic-floor-plans/booking-status")
+                        .param("officeLocation", "HQ")
+                        .param("buildingName", "B10")
+                        .param("floorId", "10")
+                        .param("date", DATE.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("data");
+
+        assertThat(data.get("total_bookings").asInt()).isEqualTo(3);
+        assertThat(data.get("confirmed_bookings").asInt()).isEqualTo(2);
+        assertThat(data.get("booked_seats")).extracting(JsonNode::asText)
+                .containsExactly("desk-overlay-1", "desk-overlay-1");
+    }
+
+    private static BookingRequest request(String seat, String startTime, String endTime) {
+        BookingRequest request = new BookingRequest();
+        request.setDate(DATE.toString());
+        request.setStartTime(startTime);
+        request.setEndTime(endTime);
+        request.setBookType(BookType.DESK);
+        request.setSubType(seat);
+        request.setOfficeLocation("HQ");
+        request.setBuilding("B10");
+        request.setFloor("10");
+        return request;
+    }
+}
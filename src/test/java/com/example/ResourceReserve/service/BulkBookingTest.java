@@ -0,0 +1,113 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.dto.BookingRequest;
+import com.example.ResourceReserve.entity.Booking;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.example.ResourceReserve.entity.Booking.RecurrenceType;
+import com.example.ResourceReserve.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Validation and the committed-data re-check of bulk bookings.
+ */
+@IntegrationTest
+class BulkBookingTest {
+
+    private static final LocalDate DATE = LocalDate.of(2031, 5, 5);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void itemWithoutSeatIsInvalid() {
+        BookingService.BulkBookingResult result = bookingService.createBookings(
+                List.of(request("desk-bulk-1", DATE), request(null, DATE)), "user-1");
+
+        assertThat(result.committed()).isFalse();
+        assertThat(result.items().get(0).status()).isEqualTo("not_booked");
+        assertThat(result.items().get(1).status()).isEqualTo("invalid");
+        assertThat(result.items().get(1).message()).isEqualTo("bookType and subType are required");
+    }
+
+    @Test
+    void zeroLengthSlotIsInvalid() {
+        BookingRequest empty = request("desk-bulk-6", DATE);
+        empty.setEndTime(empty.getStartTime());
+
+        BookingService.BulkBookingResult result = bookingService.createBookings(List.of(empty), "user-1");
+
+        assertThat(result.committed()).isFalse();
+        assertThat(result.items().get(0).status()).isEqualTo("invalid");
+        assertThat(result.items().get(0).message()).isEqualTo("End time must be after start time");
+        assertThatThrownBy(() -> bookingService.createBooking(empty, "user-1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("End time must be after start time");
+    }
+
+    @Test
+    void seriesOverTheOccurrenceCapIsRejected() {
+        BookingRequest request = request("desk-bulk-2", DATE);
+        BookingRequest.RecurrenceRequest recurrence = new BookingRequest.RecurrenceRequest();
+        recurrence.setType(RecurrenceType.DAILY);
+        // Far beyond the cap of 1000 dates; expansion stops at the cap
+        recurrence.setEndDate(DATE.plusYears(500).toString());
+        request.setRecurrence(recurrence);
+
+        assertThatThrownBy(() -> bookingService.createBookings(List.of(request), "user-1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 1000 booking dates can be booked at once");
+    }
+
+    @Test
+    void itemOverlappingACommittedBookingIsAConflict() {
+        // Written past the service, as another node would, so only the committed-data re-check sees it
+        Booking other = new Booking(DATE, LocalTime.of(12, 0), LocalTime.of(13, 0), BookType.DESK, "desk-bulk-3",
+                "HQ", "B1", "1", RecurrenceType.NONE, null, null, Booking.Status.CONFIRMED);
+        other.setUserId("user-1");
+        bookingRepository.save(other);
+
+        BookingService.BulkBookingResult result = bookingService.createBookings(
+                List.of(request("desk-bulk-3", DATE.minusDays(1)), request("desk-bulk-3", DATE)), "user-2");
+
+        assertThat(result.committed()).isFalse();
+        assertThat(result.items().get(0).status()).isEqualTo("not_booked");
+        assertThat(result.items().get(1).status()).isEqualTo("conflict");
+        assertThat(result.items().get(1).conflictDates()).containsExactly(DATE.toString());
+    }
+
+    @Test
+    void itemsOnFreeSeatDaysAreBooked() {
+        bookingService.createBooking(request("desk-bulk-4", DATE), "user-1");
+
+        BookingService.BulkBookingResult result = bookingService.createBookings(
+                List.of(request("desk-bulk-4", DATE.plusDays(1)), request("desk-bulk-5", DATE)), "user-2");
+
+        assertThat(result.committed()).isTrue();
+        assertThat(result.items()).allSatisfy(item -> assertThat(item.status()).isEqualTo("booked"));
+    }
+
+    private static BookingRequest request(String seat, LocalDate date) {
+        BookingRequest request = new BookingRequest();
+        request.setDate(date.toString());
+        request.setStartTime("09:00");
+        request.setEndTime("17:00");
+        request.setBookType(BookType.DESK);
+        request.setSubType(seat);
+        request.setOfficeLocation("HQ");
+        request.setBuilding("B1");
+        request.setFloor("1");
+        return request;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.dto.BookingRequest;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A full bulk request against booking the same items one request at a time:
+ * the bulk path checks and writes the batch in one transaction, so it must
+ * need far fewer statements and less time.
+ */
+@IntegrationTest
+@Slf4j
+class BulkBookingThroughputTest {
+
+    // The default booking.bulk.max-items
+    private static final int ITEMS = 100;
+    private static final LocalDate DATE = LocalDate.of(2031, 8, 8);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkRequestOutperformsOneRequestPerBooking() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Warm both paths so neither pays for class loading and statement preparation
+        bookingService.createBookings(items("desk-warm-bulk", 5), "user-1");
+        items("desk-warm-single", 5).forEach(item -> bookingService.createBooking(item, "user-1"));
+
+        statistics.clear();
+        long started = System.nanoTime();
+        items("desk-single", ITEMS).forEach(item -> bookingService.createBooking(item, "user-1"));
+        long singleNanos = System.nanoTime() - started;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        started = System.nanoTime();
+        BookingService.BulkBookingResult result = bookingService.createBookings(items("desk-bulk", ITEMS), "user-1");
+        long bulkNanos = System.nanoTime() - started;
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        log.info("{} bookings: one request each took {} ms and {} statements, one bulk request {} ms and {} statements",
+                ITEMS, singleNanos / 1_000_000, singleStatements, bulkNanos / 1_000_000, bulkStatements);
+        assertThat(result.committed()).isTrue();
+        // One committed-data re-check per seat remains; the per-request locks, transactions and index checks do not
+        assertThat(bulkStatements).isLessThan(singleStatements / 3);
+        assertThat(bulkNanos).isLessThan(singleNanos);
+    }
+
+    private static List<BookingRequest> items(String seatPrefix, int count) {
+        List<BookingRequest> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BookingRequest request = new BookingRequest();
+            request.setDate(DATE.toString());
+            request.setStartTime("09:00");
+            request.setEndTime("17:00");
+            request.setBookType(BookType.DESK);
+            request.setSubType(seatPrefix + "-" + i);
+            request.setOfficeLocation("HQ");
+            request.setBuilding("B1");
+            request.setFloor("1");
+            items.add(request);
+        }
+        return items;
+    }
+}
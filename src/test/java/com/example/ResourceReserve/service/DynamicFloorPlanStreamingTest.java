@@ -0,0 +1,84 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.dto.BookingRequest;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The streamed floor plan keeps the ApiResponse envelope, with the plan
+ * escaped into the plan_json string and seat status taken from bookings.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class DynamicFloorPlanStreamingTest {
+
+    private static final LocalDate DATE = LocalDate.of(2031, 9, 9);
+    private static final String PLAN = "{\"name\":\"Floor \\\"9\\\"\\nEast\","
+            + "\"seats\":[{\"id\":\"desk-stream-1\",\"status\":\"available\"},{\"id\":\"desk-stream-2\"}],"
+            + "\"deskAreas\":[]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DynamicFloorPlanService dynamicFloorPlanService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void planIsStreamedAsAStringWithSeatStatus() throws Exception {
+        dynamicFloorPlanService.saveFloorPlanData("HQ", "B9", "9", PLAN);
+        bookingService.createBooking(request("desk-stream-1"), "user-1");
+
+        MvcResult started = mockMvc.perform(get("/api/v1/dynamic-floor-plans")
+                        .param("officeLocation", "HQ")
+                        .param("buildingName", "B9")
+                        .param("floorId", "9")
+                        .param("date", DATE.toString()))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode response = objectMapper.readTree(body);
+        assertThat(response.get("success").asBoolean()).isTrue();
+        assertThat(response.get("data").get("date").asText()).isEqualTo(DATE.toString());
+        assertThat(response.get("data").get("table_name").asText()).isEqualTo("HQ_B9_Floor9_table");
+        assertThat(response.get("data").get("plan_json").isTextual()).isTrue();
+
+        JsonNode plan = objectMapper.readTree(response.get("data").get("plan_json").asText());
+        assertThat(plan.get("name").asText()).isEqualTo("Floor \"9\"\nEast");
+        assertThat(plan.get("seats").get(0).get("status").asText()).isEqualTo("occupied");
+        assertThat(plan.get("seats").get(1).get("status").asText()).isEqualTo("available");
+    }
+
+    private static BookingRequest request(String seat) {
+        BookingRequest request = new BookingRequest();
+        request.setDate(DATE.toString());
+        request.setStartTime("09:00");
+        request.setEndTime("17:00");
+        request.setBookType(BookType.DESK);
+        request.setSubType(seat);
+        request.setOfficeLocation("HQ");
+        request.setBuilding("B9");
+        request.setFloor("9");
+        return request;
+    }
+}
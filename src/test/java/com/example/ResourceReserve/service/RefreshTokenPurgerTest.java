@@ -0,0 +1,61 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.entity.RefreshToken;
+import com.example.ResourceReserve.entity.User;
+import com.example.ResourceReserve.entity.UserRole;
+import com.example.ResourceReserve.repository.RefreshTokenRepository;
+import com.example.ResourceReserve.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The purge removes expired and revoked tokens, across several chunks each,
+ * and keeps live ones.
+ */
+@IntegrationTest
+class RefreshTokenPurgerTest {
+
+    @Autowired
+    private RefreshTokenPurger purger;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void purgesExpiredAndRevokedTokensOnly() {
+        User user = userRepository.save(User.builder()
+                .email("purge@example.com").password("secret1").name("Purge").role(UserRole.EMPLOYEE).build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            save(user, "expired-" + i, now.minusDays(1), false);
+            save(user, "revoked-" + i, now.plusDays(1), true);
+        }
+        save(user, "live", now.plusDays(1), false);
+        ReflectionTestUtils.setField(purger, "batchSize", 2);
+
+        purger.purge();
+
+        assertThat(refreshTokenRepository.findAll())
+                .extracting(RefreshToken::getTokenHash)
+                .containsExactly(hash("live"));
+    }
+
+    private void save(User user, String name, LocalDateTime expiresAt, boolean revoked) {
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(name)).user(user).expiresAt(expiresAt).isRevoked(revoked).build());
+    }
+
+    // Any 64-character value will do; the purge never looks at it
+    private static String hash(String name) {
+        return String.format("%-64s", name).replace(' ', '0');
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ResourceReserve.service;
+
+import com.example.ResourceReserve.IntegrationTest;
+import com.example.ResourceReserve.dto.BookingRequest;
+import com.example.ResourceReserve.entity.Booking.BookType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * A seat changing while a subscriber's snapshot is being taken must not
+ * reach that subscriber ahead of the snapshot.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class SeatStatusBroadcasterTest {
+
+    private static final LocalDate DATE = LocalDate.of(2031, 6, 6);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @MockitoSpyBean
+    private SeatOccupancyService seatOccupancyService;
+
+    @Test
+    void snapshotIsSentBeforeChangesMadeWhileTakingIt() throws Exception {
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("seat-status-dispatcher") && first.getAndSet(false)) {
+                // The subscriber is registered; book a seat on the floor before the snapshot is read
+                CompletableFuture.runAsync(() -> bookingService.createBooking(request(), "user-1")).join();
+            }
+            return invocation.callRealMethod();
+        }).when(seatOccupancyService).getOccupancy(any(), any(), any(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/dynamic-floor-plans/booking-status/stream")
+                        .param("officeLocation", "HQ")
+                        .param("buildingName", "B1")
+                        .param("floorId", "1")
+                        .param("date", DATE.toString()))
+                .andReturn();
+
+        String stream = awaitContent(result, "event:seat-status");
+        assertThat(stream).startsWith("event:snapshot");
+        assertThat(stream.indexOf("event:snapshot")).isLessThan(stream.indexOf("event:seat-status"));
+        // The change was made before the snapshot was read, so the snapshot already has it
+        assertThat(stream.substring(0, stream.indexOf("event:seat-status"))).contains("desk-sse");
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private static BookingRequest request() {
+        BookingRequest request = new BookingRequest();
+        request.setDate(DATE.toString());
+        request.setStartTime("09:00");
+        request.setEndTime("17:00");
+        request.setBookType(BookType.DESK);
+        request.setSubType("desk-sse");
+        request.setOfficeLocation("HQ");
+        request.setBuilding("B1");
+        request.setFloor("1");
+        return request;
+    }
+}